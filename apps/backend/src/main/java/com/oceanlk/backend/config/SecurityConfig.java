@@ -1,6 +1,7 @@
 package com.oceanlk.backend.config;
 
 import com.oceanlk.backend.filter.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -36,10 +37,13 @@ public class SecurityConfig {
                                 .csrf(csrf -> csrf.disable())
                                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                                 .authorizeHttpRequests(auth -> auth
+                                                // Streamed downloads (StreamingResponseBody) finish on an ASYNC
+                                                // re-dispatch; the original request was already authorised
+                                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                                 // Public endpoints
                                                 .requestMatchers("/api/contact").permitAll()
                                                 .requestMatchers("/api/chat/**").permitAll()
-                                                .requestMatchers("/api/search").permitAll()
+                                                .requestMatchers("/api/search", "/api/search/**").permitAll()
                                                 .requestMatchers("/api/admin/login").permitAll()
                                                 .requestMatchers("/api/metrics").permitAll()
                                                 // Actuator — health+info public (Docker probe), rest requires
@@ -73,6 +77,7 @@ public class SecurityConfig {
                                                                                                               // to
                                                                                                               // GridFS
                                                                                                               // files
+                                                .requestMatchers(HttpMethod.HEAD, "/api/files/**").permitAll()
                                                 .requestMatchers("/api/test/**").hasRole("ADMIN") // Protect email
                                                                                                   // testing
                                                 .requestMatchers("/api/talent-pool/cv/**")
@@ -117,6 +122,8 @@ public class SecurityConfig {
                                                 .hasAnyRole("ADMIN", "SUPER_ADMIN")
                                                 .requestMatchers("/api/talent-pool/applications")
                                                 .hasAnyRole("ADMIN", "SUPER_ADMIN")
+                                                .requestMatchers("/api/talent-pool/export")
+                                                .hasAnyRole("ADMIN", "SUPER_ADMIN")
 
                                                 // Default deny for non-explicitly permitted routes
                                                 .anyRequest().authenticated())
@@ -0,0 +1,60 @@
+package com.oceanlk.backend.config;
+
+import com.oceanlk.backend.repository.StoredFileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Fills in stored_files columns added after files were uploaded, a batch
+ * per transaction, in the background so startup never waits on it. Every
+ * reader tolerates the columns being empty until then.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StoredFileMigrationComponent {
+
+    private final StoredFileRepository storedFileRepository;
+
+    // Hashing reads whole payloads, so its batches are kept small
+    @Value("${app.files.backfill.hash-batch-size:20}")
+    private int hashBatchSize;
+
+    @Value("${app.files.backfill.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.files.backfill.interval-ms:300000}", initialDelay = 60000)
+    public void migrateStoredFiles() {
+        // Files uploaded before ETag support have no hash or upload timestamp
+        int hashed = backfill(storedFileRepository::backfillContentHashes, hashBatchSize);
+        int dated = backfill(storedFileRepository::backfillCreatedAt, batchSize);
+        // Files uploaded before deduplication are referenced exactly once
+        int counted = backfill(storedFileRepository::backfillReferenceCounts, batchSize);
+        // Files uploaded before pluggable blob stores live in the data column
+        int sized = backfill(storedFileRepository::backfillFileSizes, batchSize);
+        int located = backfill(storedFileRepository::backfillStorageBackends, batchSize);
+
+        if (hashed > 0 || dated > 0 || counted > 0 || sized > 0 || located > 0) {
+            log.info("Backfilled content hash for {}, created date for {}, reference count for {}, "
+                    + "size for {} and storage backend for {} stored files", hashed, dated, counted, sized, located);
+        }
+    }
+
+    /**
+     * Runs one batch update until it comes up short
+     */
+    private static int backfill(IntUnaryOperator batch, int limit) {
+        int total = 0;
+        int updated;
+        do {
+            updated = batch.applyAsInt(limit);
+            total += updated;
+        } while (updated >= limit);
+        return total;
+    }
+}
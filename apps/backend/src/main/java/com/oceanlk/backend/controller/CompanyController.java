@@ -2,6 +2,7 @@ package com.oceanlk.backend.controller;
 
 import com.oceanlk.backend.model.Company;
 import com.oceanlk.backend.service.CompanyService;
+import com.oceanlk.backend.service.cache.PublicContentCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -10,6 +11,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.lang.NonNull;
+import org.hibernate.Hibernate;
 
 import java.security.Principal;
 import java.util.HashMap;
@@ -26,18 +28,30 @@ public class CompanyController {
         private final CompanyService companyService;
         private final com.oceanlk.backend.service.AuditLogService auditLogService;
         private final com.oceanlk.backend.service.PendingChangeService pendingChangeService;
+        private final PublicContentCache publicContentCache;
 
         // Public endpoints
         @GetMapping("/companies")
         public List<Company> getAllCompanies() {
-                return companyService.getAllCompanies();
+                return publicContentCache.getList(PublicContentCache.COMPANIES, PublicContentCache.ALL, Company.class,
+                                () -> companyService.getAllCompanies().stream()
+                                                .map(this::withStatsLoaded).toList());
         }
 
         @GetMapping("/companies/{id}")
         public ResponseEntity<Company> getCompanyById(@PathVariable @NonNull String id) {
-                return companyService.getCompanyById(id)
-                                .map(ResponseEntity::ok)
-                                .orElse(ResponseEntity.notFound().build());
+                Company company = publicContentCache.get(PublicContentCache.COMPANIES, id, Company.class,
+                                () -> companyService.getCompanyById(id).map(this::withStatsLoaded).orElse(null));
+                return company != null ? ResponseEntity.ok(company) : ResponseEntity.notFound().build();
+        }
+
+        /**
+         * Cached companies are serialized after their session has closed, so
+         * the lazy stats collection is loaded up front
+         */
+        private Company withStatsLoaded(Company company) {
+                Hibernate.initialize(company.getStats());
+                return company;
         }
 
         // Admin endpoints
@@ -1,38 +1,407 @@
 package com.oceanlk.backend.controller;
 
-import com.oceanlk.backend.model.StoredFile;
+import com.oceanlk.backend.dto.StoredFileMetadata;
 import com.oceanlk.backend.service.FileStorageService;
+import com.oceanlk.backend.service.ImageDerivativeService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/files")
 @RequiredArgsConstructor
+@Slf4j
 @CrossOrigin(origins = { "http://localhost:5173", "http://localhost:4173" })
 public class FileController {
 
+    // Servlet request attributes understood by Tomcat's sendfile support
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
     private final FileStorageService fileStorageService;
+    private final ImageDerivativeService imageDerivativeService;
+
+    // A hashed URL names exactly one sequence of bytes, so it can be cached for good
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic()
+            .immutable();
+
+    // Stored files never change once uploaded, so browsers and proxies may keep them for a long time
+    @Value("${app.files.cache-max-age:30d}")
+    private Duration cacheMaxAge;
 
+    /**
+     * Content-addressed URL: /api/files/{sha256}/{name}. The name is only
+     * there for readability and is ignored.
+     */
+    @GetMapping("/{hash:[0-9a-f]+}/{name}")
+    public ResponseEntity<StreamingResponseBody> getImmutableFile(@PathVariable String hash,
+            @PathVariable String name,
+            @RequestParam(value = "w", required = false) Integer width,
+            @RequestParam(value = "fmt", required = false) String format,
+            @RequestHeader HttpHeaders requestHeaders, HttpServletRequest request) {
+        StoredFileMetadata metadata = FileStorageService.isContentHash(hash)
+                ? fileStorageService.getFileMetadataByHash(hash)
+                : null;
+
+        if (metadata == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return serveFile(metadata, width, format, requestHeaders, request, IMMUTABLE);
+    }
+
+    /**
+     * ID-based URL. Files with a content hash are redirected to their
+     * immutable URL (keeping ?w=&fmt=); older files without one are served
+     * here with revalidation.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Resource> getFile(@PathVariable String id) throws IOException {
-        StoredFile storedFile = fileStorageService.getFile(id);
+    public ResponseEntity<StreamingResponseBody> getFile(@PathVariable String id,
+            @RequestParam(value = "w", required = false) Integer width,
+            @RequestParam(value = "fmt", required = false) String format,
+            @RequestHeader HttpHeaders requestHeaders, HttpServletRequest request) {
+        StoredFileMetadata metadata = fileStorageService.getFileMetadata(id);
 
-        if (storedFile == null) {
+        if (metadata == null) {
             return ResponseEntity.notFound().build();
         }
 
-        ByteArrayResource resource = new ByteArrayResource(storedFile.getData());
+        CacheControl cacheControl = CacheControl.maxAge(cacheMaxAge).cachePublic();
+        if (metadata.getContentHash() != null) {
+            String location = FileStorageService.getFileUrl(metadata);
+            if (request.getQueryString() != null) {
+                location += "?" + request.getQueryString();
+            }
+            return ResponseEntity.status(HttpStatus.MOVED_PERMANENTLY)
+                    .cacheControl(cacheControl)
+                    .location(URI.create(location))
+                    .build();
+        }
+        return serveFile(metadata, width, format, requestHeaders, request, cacheControl);
+    }
+
+    private ResponseEntity<StreamingResponseBody> serveFile(StoredFileMetadata metadata, Integer width,
+            String format, HttpHeaders requestHeaders, HttpServletRequest request, CacheControl cacheControl) {
+        long size = metadata.getSize() != null ? metadata.getSize() : 0L;
+        MediaType contentType = MediaType.parseMediaType(metadata.getContentType());
+        String disposition = "inline; filename=\"" + metadata.getFilename() + "\"";
+        String etag = metadata.getContentHash() != null ? "\"" + metadata.getContentHash() + "\"" : null;
+        ZonedDateTime lastModified = metadata.getCreatedAt() != null
+                ? metadata.getCreatedAt().atZone(ZoneId.systemDefault()).truncatedTo(ChronoUnit.SECONDS)
+                : null;
+        // HEAD gets the same headers as GET, computed from metadata, without reading the payload
+        boolean headOnly = HttpMethod.HEAD.matches(request.getMethod());
+
+        // Resized / re-encoded variant; anything that cannot be resized gets the original
+        if ((width != null || format != null) && imageDerivativeService.canResize(metadata)) {
+            ResponseEntity<StreamingResponseBody> derivative = getDerivative(metadata, width, format,
+                    requestHeaders, lastModified, cacheControl);
+            if (derivative != null) {
+                return derivative;
+            }
+        }
+
+        // Answered from metadata alone; the data column is never read
+        if (isNotModified(requestHeaders, etag, lastModified)) {
+            return withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag, lastModified)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        Optional<List<ByteRange>> resolved = resolveRanges(requestHeaders, size, etag, lastModified);
+        if (resolved.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                    .build();
+        }
+        List<ByteRange> ranges = resolved.get();
+
+        // Whole file
+        if (ranges.isEmpty()) {
+            StreamingResponseBody body = headOnly || sendFileIfLocal(request, metadata, 0, size)
+                    ? null
+                    : out -> fileStorageService.streamFile(metadata, 0, size, out);
+            return withValidators(ResponseEntity.ok(), etag, lastModified)
+                    .cacheControl(cacheControl)
+                    .contentType(contentType)
+                    .contentLength(size)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_DISPOSITION, disposition)
+                    .body(body);
+        }
+
+        // Single range: plain 206 with Content-Range
+        if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            StreamingResponseBody body = headOnly
+                    || sendFileIfLocal(request, metadata, range.start(), range.length())
+                    ? null
+                    : out -> fileStorageService.streamFile(metadata, range.start(), range.length(), out);
+            return withValidators(ResponseEntity.status(HttpStatus.PARTIAL_CONTENT), etag, lastModified)
+                    .cacheControl(cacheControl)
+                    .contentType(contentType)
+                    .contentLength(range.length())
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_RANGE, range.contentRange(size))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, disposition)
+                    .body(body);
+        }
+
+        // Multiple ranges: multipart/byteranges, each part read straight from storage
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        List<byte[]> partHeaders = new ArrayList<>();
+        long contentLength = 0;
+        for (ByteRange range : ranges) {
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + range.contentRange(size) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + range.length();
+        }
+        byte[] closingBoundary = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closingBoundary.length;
+
+        StreamingResponseBody body = out -> {
+            for (int i = 0; i < ranges.size(); i++) {
+                out.write(partHeaders.get(i));
+                fileStorageService.streamFile(metadata, ranges.get(i).start(), ranges.get(i).length(), out);
+            }
+            out.write(closingBoundary);
+            out.flush();
+        };
+
+        return withValidators(ResponseEntity.status(HttpStatus.PARTIAL_CONTENT), etag, lastModified)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.parseMediaType("multipart/byteranges; boundary=" + boundary))
+                .contentLength(contentLength)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition)
+                .body(headOnly ? null : body);
+    }
+
+    /**
+     * Serve an image variant such as ?w=400&fmt=webp. Each variant has its own
+     * ETag so caches keep it apart from the original; Range is not supported
+     * on variants and is ignored, which RFC 9110 allows.
+     *
+     * @return null if the source could not be decoded, so the original is sent
+     */
+    private ResponseEntity<StreamingResponseBody> getDerivative(StoredFileMetadata metadata, Integer width,
+            String format, HttpHeaders requestHeaders, ZonedDateTime lastModified, CacheControl cacheControl) {
+        ImageDerivativeService.Key key = imageDerivativeService.resolve(metadata, width, format);
+        String etag = metadata.getContentHash() != null
+                ? "\"" + metadata.getContentHash() + "-w" + key.width() + "." + key.format() + "\""
+                : null;
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(storedFile.getContentType()))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + storedFile.getFilename() + "\"")
-                .body(resource);
+        if (isNotModified(requestHeaders, etag, lastModified)) {
+            return withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag, lastModified)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        ImageDerivativeService.Derivative derivative;
+        try {
+            derivative = imageDerivativeService.getDerivative(metadata, key);
+        } catch (IOException e) {
+            log.warn("Could not render variant of file {}: {}", metadata.getId(), e.getMessage());
+            return null;
+        }
+
+        byte[] data = derivative.data();
+        return withValidators(ResponseEntity.ok(), etag, lastModified)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.parseMediaType(derivative.contentType()))
+                .contentLength(data.length)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + metadata.getFilename() + "\"")
+                .body(out -> out.write(data));
+    }
+
+    /**
+     * Hand a filesystem-backed payload to the servlet container's sendfile
+     * support (Tomcat NIO), which copies it from the page cache straight to
+     * the socket. Returns false when the payload is not a local file or the
+     * connector cannot do sendfile (e.g. TLS terminated in Tomcat), in which
+     * case the caller streams the bytes itself.
+     */
+    private boolean sendFileIfLocal(HttpServletRequest request, StoredFileMetadata metadata, long offset,
+            long length) {
+        if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            return false;
+        }
+
+        Optional<Path> localPath = fileStorageService.getLocalPath(metadata);
+        if (localPath.isEmpty()) {
+            return false;
+        }
+
+        request.setAttribute(SENDFILE_FILENAME_ATTR, localPath.get().toString());
+        request.setAttribute(SENDFILE_START_ATTR, offset);
+        request.setAttribute(SENDFILE_END_ATTR, offset + length);
+        return true;
+    }
+
+    private ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, String etag,
+            ZonedDateTime lastModified) {
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        if (lastModified != null) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+
+    /**
+     * If-None-Match takes precedence over If-Modified-Since (RFC 9110 13.2.2)
+     */
+    private boolean isNotModified(HttpHeaders requestHeaders, String etag, ZonedDateTime lastModified) {
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            if (etag == null) {
+                return false;
+            }
+            // Weak comparison: a W/ prefix on the client's copy still matches
+            return ifNoneMatch.stream()
+                    .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                    .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+        }
+
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        return ifModifiedSince != -1 && lastModified != null
+                && lastModified.toInstant().toEpochMilli() <= ifModifiedSince;
+    }
+
+    /**
+     * If-Range requires a strong match: the exact ETag, or the exact
+     * Last-Modified date
+     */
+    private boolean ifRangeMatches(String ifRange, String etag, ZonedDateTime lastModified) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return etag != null && ifRange.equals(etag);
+        }
+        try {
+            long date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .toInstant().toEpochMilli();
+            return lastModified != null && lastModified.toInstant().toEpochMilli() == date;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Resolve the Range header into absolute byte windows, in ascending order
+     * with overlapping and adjacent ranges merged. Returns an empty list when
+     * the whole file should be sent: no Range header, an unparseable one (RFC
+     * 9110 says to ignore it), an If-Range validator that does not match, or
+     * ranges that add up to more than the file, which would only repeat bytes
+     * (e.g. "bytes=0-,0-,0-"). Returns empty when no range is satisfiable.
+     */
+    Optional<List<ByteRange>> resolveRanges(HttpHeaders requestHeaders, long size, String etag,
+            ZonedDateTime lastModified) {
+        String rangeHeader = requestHeaders.getFirst(HttpHeaders.RANGE);
+        if (rangeHeader == null || rangeHeader.isBlank()) {
+            return Optional.of(List.of());
+        }
+
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRangeMatches(ifRange.trim(), etag, lastModified)) {
+            return Optional.of(List.of());
+        }
+
+        List<HttpRange> httpRanges;
+        try {
+            httpRanges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return Optional.of(List.of());
+        }
+
+        List<ByteRange> ranges = new ArrayList<>();
+        long requested = 0;
+        for (HttpRange httpRange : httpRanges) {
+            long start;
+            long end;
+            try {
+                start = httpRange.getRangeStart(size);
+                end = httpRange.getRangeEnd(size);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            // HttpRange does not reject a first byte past the end of the file; skip the range
+            if (start >= size || start > end) {
+                continue;
+            }
+            ByteRange range = new ByteRange(start, end);
+            ranges.add(range);
+            requested += range.length();
+        }
+
+        if (ranges.isEmpty()) {
+            return Optional.empty();
+        }
+        if (requested > size) {
+            return Optional.of(List.of());
+        }
+        return Optional.of(coalesce(ranges));
+    }
+
+    private static List<ByteRange> coalesce(List<ByteRange> ranges) {
+        List<ByteRange> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingLong(ByteRange::start));
+
+        List<ByteRange> merged = new ArrayList<>();
+        ByteRange current = sorted.get(0);
+        for (ByteRange next : sorted.subList(1, sorted.size())) {
+            if (next.start() <= current.end() + 1) {
+                current = new ByteRange(current.start(), Math.max(current.end(), next.end()));
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+
+    /**
+     * Inclusive byte window within a stored file
+     */
+    record ByteRange(long start, long end) {
+
+        long length() {
+            return end - start + 1;
+        }
+
+        String contentRange(long size) {
+            return "bytes " + start + "-" + end + "/" + size;
+        }
     }
 }
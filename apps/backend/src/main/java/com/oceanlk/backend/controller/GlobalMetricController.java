@@ -2,6 +2,7 @@ package com.oceanlk.backend.controller;
 
 import com.oceanlk.backend.model.GlobalMetric;
 import com.oceanlk.backend.repository.GlobalMetricRepository;
+import com.oceanlk.backend.service.cache.PublicContentCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -24,10 +25,13 @@ public class GlobalMetricController {
         private final GlobalMetricRepository repository;
         private final com.oceanlk.backend.service.AuditLogService auditLogService;
         private final com.oceanlk.backend.service.PendingChangeService pendingChangeService;
+        private final PublicContentCache publicContentCache;
 
         @GetMapping
         public ResponseEntity<List<GlobalMetric>> getAllMetrics() {
-                return ResponseEntity.ok(repository.findAllByOrderByDisplayOrderAsc());
+                return ResponseEntity.ok(publicContentCache.getList(PublicContentCache.METRICS, PublicContentCache.ALL,
+                                GlobalMetric.class,
+                                () -> List.copyOf(repository.findAllByOrderByDisplayOrderAsc())));
         }
 
         @PostMapping
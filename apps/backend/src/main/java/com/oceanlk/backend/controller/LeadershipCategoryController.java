@@ -2,6 +2,7 @@ package com.oceanlk.backend.controller;
 
 import com.oceanlk.backend.model.LeadershipCategory;
 import com.oceanlk.backend.repository.LeadershipCategoryRepository;
+import com.oceanlk.backend.service.cache.PublicContentCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,24 +19,28 @@ public class LeadershipCategoryController {
 
     private final LeadershipCategoryRepository repository;
     private final com.oceanlk.backend.service.AuditLogService auditLogService;
+    private final PublicContentCache publicContentCache;
 
     @GetMapping
     public ResponseEntity<List<LeadershipCategory>> getAllCategories() {
-        List<LeadershipCategory> categories = repository.findAllByOrderByDisplayOrderAsc();
-
-        // Initialize default categories if none exist
-        if (categories.isEmpty()) {
-            categories = initializeDefaultCategories();
-        }
-
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok(publicContentCache.getList(PublicContentCache.LEADERSHIP_CATEGORIES,
+                PublicContentCache.ALL, LeadershipCategory.class, () -> {
+                    List<LeadershipCategory> categories = repository.findAllByOrderByDisplayOrderAsc();
+
+                    // Initialize default categories if none exist
+                    if (categories.isEmpty()) {
+                        categories = initializeDefaultCategories();
+                    }
+                    return List.copyOf(categories);
+                }));
     }
 
     @GetMapping("/{code}")
     public ResponseEntity<LeadershipCategory> getCategoryByCode(@PathVariable String code) {
-        return repository.findByCode(code.toUpperCase())
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        String normalizedCode = code.toUpperCase();
+        LeadershipCategory category = publicContentCache.get(PublicContentCache.LEADERSHIP_CATEGORIES,
+                normalizedCode, LeadershipCategory.class, () -> repository.findByCode(normalizedCode).orElse(null));
+        return category != null ? ResponseEntity.ok(category) : ResponseEntity.notFound().build();
     }
 
     @PutMapping("/{code}")
@@ -2,6 +2,7 @@ package com.oceanlk.backend.controller;
 
 import com.oceanlk.backend.model.CorporateLeader;
 import com.oceanlk.backend.repository.CorporateLeaderRepository;
+import com.oceanlk.backend.service.cache.PublicContentCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,15 +25,21 @@ public class LeadershipController {
         private final com.oceanlk.backend.service.LeadershipService leadershipService;
         private final com.oceanlk.backend.service.AuditLogService auditLogService;
         private final com.oceanlk.backend.service.PendingChangeService pendingChangeService;
+        private final PublicContentCache publicContentCache;
 
         @GetMapping
         public ResponseEntity<List<CorporateLeader>> getAllLeaders() {
-                return ResponseEntity.ok(repository.findAllByOrderByDisplayOrderAsc());
+                return ResponseEntity.ok(publicContentCache.getList(PublicContentCache.LEADERSHIP, PublicContentCache.ALL,
+                                CorporateLeader.class,
+                                () -> List.copyOf(repository.findAllByOrderByDisplayOrderAsc())));
         }
 
         @GetMapping("/department/{dept}")
         public ResponseEntity<List<CorporateLeader>> getLeadersByDepartment(@PathVariable @NonNull String dept) {
-                return ResponseEntity.ok(repository.findByDepartmentOrderByDisplayOrderAsc(dept.toUpperCase()));
+                String department = dept.toUpperCase();
+                return ResponseEntity.ok(publicContentCache.getList(PublicContentCache.LEADERSHIP,
+                                "department:" + department, CorporateLeader.class,
+                                () -> List.copyOf(repository.findByDepartmentOrderByDisplayOrderAsc(department))));
         }
 
         @PostMapping
@@ -1,16 +1,23 @@
 package com.oceanlk.backend.controller;
 
+import com.oceanlk.backend.dto.StoredFileLayout;
+import com.oceanlk.backend.dto.StoredFileMetadata;
 import com.oceanlk.backend.model.MediaItem;
 import com.oceanlk.backend.repository.CompanyRepository;
 import com.oceanlk.backend.repository.MediaItemRepository;
+import com.oceanlk.backend.service.BulkUploadService;
 import com.oceanlk.backend.service.FileStorageService;
+import com.oceanlk.backend.service.storage.FileMetadataExtractor;
+import com.oceanlk.backend.service.storage.OrphanedFileCollector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +33,9 @@ public class MediaController {
 
     private final MediaItemRepository mediaRepository;
     private final FileStorageService fileStorageService;
+    private final BulkUploadService bulkUploadService;
+    private final OrphanedFileCollector orphanedFileCollector;
+    private final FileMetadataExtractor fileMetadataExtractor;
     private final CompanyRepository companyRepository;
     private final com.oceanlk.backend.service.AuditLogService auditLogService;
 
@@ -48,6 +58,7 @@ public class MediaController {
         } else {
             mediaItems = mediaRepository.findByStatusOrderByPublishedDateDesc("PUBLISHED");
         }
+        attachFileLayouts(mediaItems);
         return ResponseEntity.ok(mediaItems);
     }
 
@@ -59,9 +70,13 @@ public class MediaController {
             log.info("Gallery endpoint: Found {} published media items", mediaItems.size());
 
             // Enrich with company information
-            List<Map<String, Object>> enrichedItems = mediaItems.stream()
+            List<MediaItem> galleryItems = mediaItems.stream()
                     .filter(item -> "Gallery".equalsIgnoreCase(item.getCategory())
                             && "MEDIA_PANEL".equalsIgnoreCase(item.getGroup()))
+                    .collect(java.util.stream.Collectors.toList());
+            attachFileLayouts(galleryItems);
+
+            List<Map<String, Object>> enrichedItems = galleryItems.stream()
                     .map(item -> {
                         Map<String, Object> enriched = new HashMap<>();
                         enriched.put("id", item.getId());
@@ -71,6 +86,9 @@ public class MediaController {
                         enriched.put("videoUrl", item.getVideoUrl());
                         enriched.put("category", item.getCategory());
                         enriched.put("featured", item.isFeatured());
+                        if (item.getFileLayouts() != null) {
+                            enriched.put("fileLayouts", item.getFileLayouts());
+                        }
 
                         // Add company info if associated
                         String companyId = item.getCompanyId();
@@ -101,6 +119,7 @@ public class MediaController {
     public ResponseEntity<List<MediaItem>> getNewsArticles() {
         List<MediaItem> news = mediaRepository.findByCategoryAndGroupAndStatusOrderByPublishedDateDesc("NEWS",
                 "MEDIA_PANEL", "PUBLISHED");
+        attachFileLayouts(news);
         return ResponseEntity.ok(news);
     }
 
@@ -109,6 +128,7 @@ public class MediaController {
     public ResponseEntity<List<MediaItem>> getBlogPosts() {
         List<MediaItem> blogs = mediaRepository.findByCategoryAndGroupAndStatusOrderByPublishedDateDesc("BLOG",
                 "MEDIA_PANEL", "PUBLISHED");
+        attachFileLayouts(blogs);
         return ResponseEntity.ok(blogs);
     }
 
@@ -127,6 +147,7 @@ public class MediaController {
                 });
             }
         });
+        attachFileLayouts(media);
 
         return ResponseEntity.ok(media);
     }
@@ -143,12 +164,50 @@ public class MediaController {
 
                     // If it is a gallery/album, ensure galleryImages is present.
                     // The entity usually has it.
+                    attachFileLayouts(List.of(item));
                     return ResponseEntity.ok(item);
                 })
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(java.util.Collections.singletonMap("error", "Media item not found")));
     }
 
+    /**
+     * Adds the extracted dimensions/placeholder/page count of each item's files
+     * so clients can reserve layout space. One query for the whole list.
+     */
+    private void attachFileLayouts(List<MediaItem> items) {
+        List<String> urls = new ArrayList<>();
+        for (MediaItem item : items) {
+            urls.add(item.getImageUrl());
+            urls.add(item.getVideoUrl());
+            if (item.getGalleryImages() != null) {
+                urls.addAll(item.getGalleryImages());
+            }
+        }
+        Map<String, StoredFileLayout> layouts = fileMetadataExtractor.findLayouts(urls);
+        if (layouts.isEmpty()) {
+            return;
+        }
+        for (MediaItem item : items) {
+            Map<String, StoredFileLayout> itemLayouts = new HashMap<>();
+            putLayout(itemLayouts, layouts, item.getImageUrl());
+            putLayout(itemLayouts, layouts, item.getVideoUrl());
+            if (item.getGalleryImages() != null) {
+                item.getGalleryImages().forEach(url -> putLayout(itemLayouts, layouts, url));
+            }
+            if (!itemLayouts.isEmpty()) {
+                item.setFileLayouts(itemLayouts);
+            }
+        }
+    }
+
+    private static void putLayout(Map<String, StoredFileLayout> target, Map<String, StoredFileLayout> layouts,
+            String url) {
+        if (url != null && layouts.containsKey(url)) {
+            target.put(url, layouts.get(url));
+        }
+    }
+
     // Admin endpoints
     @GetMapping("/admin/media")
     public ResponseEntity<List<MediaItem>> getAllMedia(@RequestParam(required = false) String group) {
@@ -207,6 +266,98 @@ public class MediaController {
         }
     }
 
+    // Bulk album upload: many images as "files", or one ZIP as "archive", stored in parallel.
+    // With createAlbum=true the gallery MediaItem is created from the uploaded images.
+    @PostMapping("/admin/media/upload/bulk")
+    public ResponseEntity<?> uploadAlbum(
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "archive", required = false) MultipartFile archive,
+            @RequestParam(value = "group", defaultValue = "MEDIA_PANEL") String group,
+            @RequestParam(value = "createAlbum", defaultValue = "false") boolean createAlbum,
+            @RequestParam(value = "title", required = false) String title,
+            @RequestParam(value = "description", required = false) String description,
+            @RequestParam(value = "category", defaultValue = "GALLERY") String category,
+            @RequestParam(value = "companyId", required = false) String companyId,
+            java.security.Principal principal,
+            org.springframework.security.core.Authentication authentication) {
+        if ((files == null || files.isEmpty()) && (archive == null || archive.isEmpty())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Send images as 'files' or a ZIP archive as 'archive'"));
+        }
+        if (createAlbum && (title == null || title.isBlank())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Album title is required"));
+        }
+
+        List<BulkUploadService.UploadedFile> uploaded;
+        try {
+            uploaded = archive != null && !archive.isEmpty()
+                    ? bulkUploadService.uploadZip(archive, group)
+                    : bulkUploadService.uploadFiles(files, group);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Bulk upload failed: {}", e.getMessage(), e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Bulk upload failed");
+            error.put("details", e.getClass().getSimpleName() + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
+        List<String> urls = uploaded.stream()
+                .map(BulkUploadService.UploadedFile::url)
+                .filter(java.util.Objects::nonNull)
+                .collect(java.util.stream.Collectors.toList());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("files", uploaded);
+        response.put("urls", urls);
+        response.put("failed", uploaded.size() - urls.size());
+
+        if (createAlbum) {
+            if (urls.isEmpty()) {
+                response.put("error", "No images were uploaded; album not created");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            }
+
+            MediaItem album = new MediaItem(title, description, null, null, category, false);
+            album.setType("GALLERY");
+            album.setGroup(group);
+            album.setCompanyId(companyId);
+
+            boolean isSuperAdmin = authentication.getAuthorities().stream()
+                    .anyMatch(auth -> auth.getAuthority().equals("ROLE_SUPER_ADMIN"));
+            try {
+                response.put("album", bulkUploadService.createAlbum(album, urls, principal.getName(), isSuperAdmin));
+            } catch (Exception e) {
+                // Nothing refers to the images without the album
+                urls.forEach(fileStorageService::deleteFile);
+                log.error("Failed to create album: {}", e.getMessage(), e);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Failed to create album");
+                error.put("details", e.getClass().getSimpleName() + ": " + e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+
+        return ResponseEntity.ok(response);
+    }
+
+    // Stored files in a group (metadata only), for picking previously uploaded media
+    @GetMapping("/admin/media/files")
+    public ResponseEntity<List<StoredFileMetadata>> listStoredFiles(
+            @RequestParam(value = "group", defaultValue = "MEDIA_PANEL") String group,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.ok(fileStorageService.listFiles(group, Math.min(Math.max(limit, 1), 500)));
+    }
+
+    // Dry run of the orphaned file collector: what would be deleted, without deleting it
+    @GetMapping("/admin/media/files/orphans")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<OrphanedFileCollector.Report> getOrphanedFiles() {
+        return ResponseEntity.ok(orphanedFileCollector.collect(true));
+    }
+
     @PostMapping("/admin/media")
     public ResponseEntity<?> createMediaItem(@RequestBody MediaItem mediaItem,
             java.security.Principal principal,
@@ -2,6 +2,7 @@ package com.oceanlk.backend.controller;
 
 import com.oceanlk.backend.model.PageContent;
 import com.oceanlk.backend.repository.PageContentRepository;
+import com.oceanlk.backend.service.cache.PublicContentCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,19 +23,24 @@ public class PageContentController {
         private final PageContentRepository repository;
         private final com.oceanlk.backend.service.AuditLogService auditLogService;
         private final com.oceanlk.backend.service.PendingChangeService pendingChangeService;
+        private final PublicContentCache publicContentCache;
 
         @GetMapping("/{page}")
         public ResponseEntity<List<PageContent>> getPageContent(@PathVariable String page) {
-                return ResponseEntity.ok(repository.findByPageIdentifier(page.toUpperCase()));
+                return ResponseEntity.ok(publicContentCache.getList(PublicContentCache.PAGE_CONTENT,
+                                PublicContentCache.pageKey(page), PageContent.class,
+                                () -> List.copyOf(repository.findByPageIdentifier(page.toUpperCase()))));
         }
 
         @GetMapping("/{page}/{section}")
         public ResponseEntity<PageContent> getSectionContent(
                         @PathVariable String page,
                         @PathVariable String section) {
-                return repository.findByPageIdentifierAndSectionIdentifier(page.toUpperCase(), section.toUpperCase())
-                                .map(ResponseEntity::ok)
-                                .orElse(ResponseEntity.notFound().build());
+                PageContent content = publicContentCache.get(PublicContentCache.PAGE_CONTENT,
+                                PublicContentCache.sectionKey(page, section), PageContent.class,
+                                () -> repository.findByPageIdentifierAndSectionIdentifier(page.toUpperCase(),
+                                                section.toUpperCase()).orElse(null));
+                return content != null ? ResponseEntity.ok(content) : ResponseEntity.notFound().build();
         }
 
         @PostMapping
@@ -2,6 +2,7 @@ package com.oceanlk.backend.controller;
 
 import com.oceanlk.backend.model.Partner;
 import com.oceanlk.backend.repository.PartnerRepository;
+import com.oceanlk.backend.service.cache.PublicContentCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,10 +25,13 @@ public class PartnerController {
         private final PartnerRepository repository;
         private final com.oceanlk.backend.service.AuditLogService auditLogService;
         private final com.oceanlk.backend.service.PendingChangeService pendingChangeService;
+        private final PublicContentCache publicContentCache;
 
         @GetMapping
         public ResponseEntity<List<Partner>> getAllPartners() {
-                return ResponseEntity.ok(repository.findAllByOrderByDisplayOrderAsc());
+                return ResponseEntity.ok(publicContentCache.getList(PublicContentCache.PARTNERS, PublicContentCache.ALL,
+                                Partner.class,
+                                () -> List.copyOf(repository.findAllByOrderByDisplayOrderAsc())));
         }
 
         @PostMapping
@@ -0,0 +1,153 @@
+package com.oceanlk.backend.controller;
+
+import com.oceanlk.backend.exception.ResourceNotFoundException;
+import com.oceanlk.backend.exception.UploadOffsetMismatchException;
+import com.oceanlk.backend.model.UploadSession;
+import com.oceanlk.backend.service.FileStorageService;
+import com.oceanlk.backend.service.ResumableUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resumable uploads for large media. The client opens a session, PUTs the
+ * file as raw chunks (application/octet-stream) at increasing offsets and,
+ * after a dropped connection, asks for the session's offset and carries on
+ * from there. The response to the last chunk carries the stored file URL.
+ */
+@RestController
+@RequestMapping("/api/admin/media/uploads")
+@RequiredArgsConstructor
+@CrossOrigin(origins = { "http://localhost:5173", "http://localhost:4173" })
+@Slf4j
+public class ResumableUploadController {
+
+    private final ResumableUploadService uploadService;
+    private final FileStorageService fileStorageService;
+
+    @PostMapping
+    public ResponseEntity<?> createSession(@RequestParam("filename") String filename,
+            @RequestParam("contentType") String contentType,
+            @RequestParam("size") long size,
+            @RequestParam(value = "group", defaultValue = "MEDIA_PANEL") String group,
+            Principal principal) {
+        try {
+            UploadSession session = uploadService.createSession(filename, contentType, size, group,
+                    principal.getName());
+            return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(session));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getSession(@PathVariable String id, Principal principal) {
+        UploadSession session = findOwnSession(id, principal);
+        if (session == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Upload session not found"));
+        }
+        return ResponseEntity.ok(toResponse(session));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<?> uploadChunk(@PathVariable String id, @RequestParam("offset") long offset,
+            HttpServletRequest request, Principal principal) {
+        if (findOwnSession(id, principal) == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Upload session not found"));
+        }
+
+        long length = request.getContentLengthLong();
+        if (length < 0) {
+            return ResponseEntity.status(HttpStatus.LENGTH_REQUIRED)
+                    .body(Map.of("error", "Chunks must be sent with a Content-Length"));
+        }
+
+        try {
+            UploadSession session = uploadService.appendChunk(id, offset, request.getInputStream(), length);
+            if (session.getReceivedBytes().equals(session.getTotalSize())) {
+                session.setFileId(uploadService.complete(id));
+            }
+            return ResponseEntity.ok(toResponse(session));
+        } catch (UploadOffsetMismatchException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage(), "offset", e.getExpectedOffset()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Chunk upload failed for session {}: {}", id, e.getMessage());
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Chunk upload failed");
+            error.put("details", e.getClass().getSimpleName() + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    /**
+     * Retry assembling a session whose chunks are all in but whose final
+     * request failed before the file was stored
+     */
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<?> completeSession(@PathVariable String id, Principal principal) {
+        UploadSession session = findOwnSession(id, principal);
+        if (session == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Upload session not found"));
+        }
+
+        try {
+            session.setFileId(uploadService.complete(id));
+            return ResponseEntity.ok(toResponse(session));
+        } catch (UploadOffsetMismatchException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Upload is not complete yet", "offset", e.getExpectedOffset()));
+        } catch (Exception e) {
+            log.error("Completing upload session {} failed: {}", id, e.getMessage());
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "File upload failed");
+            error.put("details", e.getClass().getSimpleName() + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancelSession(@PathVariable String id, Principal principal) {
+        if (findOwnSession(id, principal) == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Upload session not found"));
+        }
+        uploadService.cancel(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Sessions are only visible to the admin who opened them
+     */
+    private UploadSession findOwnSession(String id, Principal principal) {
+        try {
+            UploadSession session = uploadService.getSession(id);
+            return principal.getName().equals(session.getCreatedBy()) ? session : null;
+        } catch (ResourceNotFoundException e) {
+            return null;
+        }
+    }
+
+    private Map<String, Object> toResponse(UploadSession session) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("uploadId", session.getId());
+        response.put("offset", session.getReceivedBytes());
+        response.put("size", session.getTotalSize());
+        response.put("chunkSize", uploadService.getMaxChunkSize());
+        response.put("complete", session.getFileId() != null);
+        if (session.getFileId() != null) {
+            response.put("url", fileStorageService.getFileUrl(session.getFileId()));
+            response.put("type", fileStorageService.getFileType(session.getContentType()));
+        }
+        return response;
+    }
+}
@@ -2,10 +2,13 @@ package com.oceanlk.backend.controller;
 
 import com.oceanlk.backend.dto.SearchDTO;
 import com.oceanlk.backend.service.SearchService;
+import com.oceanlk.backend.service.search.TitleSuggester;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/search")
 @RequiredArgsConstructor
@@ -13,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 public class SearchController {
 
     private final SearchService searchService;
+    private final TitleSuggester titleSuggester;
 
     @PostMapping
     public ResponseEntity<SearchDTO.SearchResponse> search(@RequestBody SearchDTO.SearchRequest request) {
@@ -35,4 +39,32 @@ public class SearchController {
         SearchDTO.SearchResponse response = searchService.search(q);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * All matches in one category, a page at a time: pass the response's
+     * nextCursor back as cursor until it is null. Other parameters filter on
+     * facet values, e.g. /api/search/jobs?q=engineer&location=Colombo.
+     */
+    @GetMapping("/{category}")
+    public ResponseEntity<?> searchCategory(@PathVariable String category, @RequestParam String q,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int limit,
+            @RequestParam Map<String, String> filters) {
+        if (q.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Query is required"));
+        }
+        try {
+            return ResponseEntity.ok(searchService.searchCategory(category, q, filters, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Typeahead: titles and names starting with (a word starting with) q
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<SearchDTO.SuggestResponse> suggest(@RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(new SearchDTO.SuggestResponse(q, titleSuggester.suggest(q, limit)));
+    }
 }
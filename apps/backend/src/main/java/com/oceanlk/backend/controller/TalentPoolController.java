@@ -1,24 +1,28 @@
 package com.oceanlk.backend.controller;
 
+import com.oceanlk.backend.dto.StoredFileMetadata;
 import com.oceanlk.backend.model.TalentPoolApplication;
 import com.oceanlk.backend.repository.TalentPoolApplicationRepository;
 import com.oceanlk.backend.service.EmailService;
 import com.oceanlk.backend.service.FileStorageService;
-import com.oceanlk.backend.model.StoredFile;
+import com.oceanlk.backend.service.TalentPoolExportService;
 import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.lang.NonNull;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +37,7 @@ public class TalentPoolController {
     private final TalentPoolApplicationRepository applicationRepository;
     private final EmailService emailService;
     private final FileStorageService fileStorageService;
+    private final TalentPoolExportService talentPoolExportService;
     private final com.oceanlk.backend.service.AuditLogService auditLogService;
     private final com.oceanlk.backend.service.NotificationService notificationService;
 
@@ -71,8 +76,7 @@ public class TalentPoolController {
                     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
                 }
 
-                StoredFile savedFile = fileStorageService.saveFileRaw(file, "CV");
-                String fileId = savedFile.getId();
+                String fileId = fileStorageService.saveFileRaw(file, "CV");
 
                 application.setCvFileId(fileId);
                 application.setCvFilename(file.getOriginalFilename());
@@ -150,21 +154,24 @@ public class TalentPoolController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
             }
 
-            StoredFile storedFile = fileStorageService.getFile(application.getCvFileId());
+            String fileId = application.getCvFileId();
+            StoredFileMetadata metadata = fileStorageService.getFileMetadata(fileId);
 
-            if (storedFile == null) {
+            if (metadata == null) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "CV file not found in storage");
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
             }
 
-            ByteArrayResource resource = new ByteArrayResource(storedFile.getData());
+            long size = metadata.getSize() != null ? metadata.getSize() : 0L;
+            StreamingResponseBody body = out -> fileStorageService.streamFile(metadata, 0, size, out);
 
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .contentLength(size)
                     .header(HttpHeaders.CONTENT_DISPOSITION,
                             "attachment; filename=\"" + application.getCvFilename() + "\"")
-                    .body(resource);
+                    .body(body);
 
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -173,6 +180,36 @@ public class TalentPoolController {
         }
     }
 
+    /**
+     * ZIP of the matching applications' CVs plus a manifest.csv, streamed as it
+     * is built. Dates are inclusive (yyyy-MM-dd).
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportCVs(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String position,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            org.springframework.security.core.Authentication authentication) {
+        TalentPoolExportService.Filter filter = new TalentPoolExportService.Filter(
+                status != null && !status.isBlank() ? status : null,
+                position != null && !position.isBlank() ? position : null,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.atTime(LocalTime.MAX) : null);
+
+        auditLogService.logAction(authentication.getName(), "EXPORT", "TalentPoolApplication", null,
+                "Exported CVs (status: " + filter.status() + ", position: " + filter.position()
+                        + ", from: " + from + ", to: " + to + ")");
+
+        StreamingResponseBody body = out -> talentPoolExportService.writeExport(filter, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"talent-pool-cvs-" + LocalDate.now() + ".zip\"")
+                .body(body);
+    }
+
     @PatchMapping("/application/{id}/status")
     public ResponseEntity<?> updateApplicationStatus(
             @PathVariable @NonNull String id,
@@ -2,6 +2,7 @@ package com.oceanlk.backend.controller;
 
 import com.oceanlk.backend.model.Testimonial;
 import com.oceanlk.backend.service.TestimonialService;
+import com.oceanlk.backend.service.cache.PublicContentCache;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -31,9 +32,14 @@ public class TestimonialController {
         @Autowired
         private com.oceanlk.backend.service.PendingChangeService pendingChangeService;
 
+        @Autowired
+        private PublicContentCache publicContentCache;
+
         @GetMapping
         public ResponseEntity<List<Testimonial>> getAllTestimonials() {
-                return ResponseEntity.ok(testimonialService.getAllTestimonials());
+                return ResponseEntity.ok(publicContentCache.getList(PublicContentCache.TESTIMONIALS, PublicContentCache.ALL,
+                                Testimonial.class,
+                                () -> List.copyOf(testimonialService.getAllTestimonials())));
         }
 
         @GetMapping("/{id}")
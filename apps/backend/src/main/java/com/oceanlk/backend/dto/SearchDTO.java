@@ -23,6 +23,14 @@ public class SearchDTO {
         private String query;
         private Map<String, List<SearchResultItem>> results;
         private int totalResults;
+        // True when some categories missed their deadline or failed and were left out
+        private boolean partial;
+        // Match counts by facet ("category", "location", "company", ...) and value, over all matches
+        private Map<String, Map<String, Integer>> facets;
+
+        public SearchResponse(String query, Map<String, List<SearchResultItem>> results, int totalResults) {
+            this(query, results, totalResults, false, null);
+        }
     }
 
     @Data
@@ -37,4 +45,35 @@ public class SearchDTO {
         private String imageUrl; // Optional image/logo
         private String category; // Optional additional categorization
     }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryPage {
+        private String query;
+        private String category;
+        private List<SearchResultItem> results;
+        private String nextCursor; // Pass back as ?cursor= for the next page; null on the last page
+        private Integer totalResults; // Only on the first page
+        private boolean totalExact; // False when totalResults and facets are lower bounds
+        private Map<String, Map<String, Integer>> facets; // Only on the first page
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Suggestion {
+        private String text; // Title or name to complete to
+        private String type;
+        private String id;
+        private String url;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SuggestResponse {
+        private String query;
+        private List<Suggestion> suggestions;
+    }
 }
@@ -0,0 +1,26 @@
+package com.oceanlk.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Layout metadata extracted from a stored file at upload, so clients can size
+ * and placeholder media before downloading it. Fields that do not apply to
+ * the file's type are null.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public interface StoredFileLayout {
+    String getId();
+
+    // Used to match /api/files/{hash}/{name} URLs; not sent to clients
+    @JsonIgnore
+    String getContentHash();
+
+    Integer getWidth();
+
+    Integer getHeight();
+
+    String getBlurhash();
+
+    Integer getPageCount();
+}
@@ -0,0 +1,25 @@
+package com.oceanlk.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a stored file's metadata, loaded without touching the
+ * BYTEA payload column.
+ */
+public interface StoredFileMetadata {
+    String getId();
+
+    String getFilename();
+
+    String getContentType();
+
+    String getGroupName();
+
+    Long getSize();
+
+    String getContentHash();
+
+    LocalDateTime getCreatedAt();
+
+    String getStorageBackend();
+}
@@ -0,0 +1,21 @@
+package com.oceanlk.backend.exception;
+
+/**
+ * A resumable upload chunk was sent for an offset other than the one the
+ * server expects next
+ */
+public class UploadOffsetMismatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long expectedOffset;
+
+    public UploadOffsetMismatchException(long expectedOffset) {
+        super("Upload expects the chunk at offset " + expectedOffset);
+        this.expectedOffset = expectedOffset;
+    }
+
+    public long getExpectedOffset() {
+        return expectedOffset;
+    }
+}
@@ -1,5 +1,7 @@
 package com.oceanlk.backend.model;
 
+import com.oceanlk.backend.service.cache.PublicContentCacheListener;
+import com.oceanlk.backend.service.search.SearchIndexListener;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 import jakarta.persistence.*;
@@ -8,6 +10,7 @@ import java.util.List;
 @Data
 @Entity
 @Table(name = "companies")
+@EntityListeners({ SearchIndexListener.class, PublicContentCacheListener.class })
 public class Company {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -1,5 +1,6 @@
 package com.oceanlk.backend.model;
 
+import com.oceanlk.backend.service.search.SearchIndexListener;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -11,6 +12,7 @@ import java.time.LocalTime;
 @Data
 @Entity
 @Table(name = "events")
+@EntityListeners(SearchIndexListener.class)
 public class Event {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -1,5 +1,6 @@
 package com.oceanlk.backend.model;
 
+import com.oceanlk.backend.service.cache.PublicContentCacheListener;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +11,7 @@ import jakarta.persistence.*;
 @AllArgsConstructor
 @Entity
 @Table(name = "global_metrics")
+@EntityListeners(PublicContentCacheListener.class)
 public class GlobalMetric {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
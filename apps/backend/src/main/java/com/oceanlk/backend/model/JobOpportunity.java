@@ -1,5 +1,6 @@
 package com.oceanlk.backend.model;
 
+import com.oceanlk.backend.service.search.SearchIndexListener;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,6 +9,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "job_opportunities")
+@EntityListeners(SearchIndexListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
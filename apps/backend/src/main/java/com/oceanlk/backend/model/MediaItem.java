@@ -1,13 +1,18 @@
 package com.oceanlk.backend.model;
 
+import com.oceanlk.backend.service.search.SearchIndexListener;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.oceanlk.backend.dto.StoredFileLayout;
 import jakarta.persistence.*;
 import java.time.LocalDate;
+import java.util.Map;
 
 @Entity
 @Table(name = "media_items")
+@EntityListeners(SearchIndexListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -59,6 +64,12 @@ public class MediaItem {
     @Embedded
     private SeoMetadata seoMetadata;
 
+    // Size, placeholder and page count of the item's files, keyed by URL;
+    // filled in by the public endpoints, never stored
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, StoredFileLayout> fileLayouts;
+
     public MediaItem(String title, String description, String imageUrl,
             String videoUrl, String category, boolean featured) {
         this.title = title;
@@ -1,5 +1,6 @@
 package com.oceanlk.backend.model;
 
+import com.oceanlk.backend.service.cache.PublicContentCacheListener;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +11,7 @@ import jakarta.persistence.*;
 @AllArgsConstructor
 @Entity
 @Table(name = "page_content")
+@EntityListeners(PublicContentCacheListener.class)
 public class PageContent {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -1,5 +1,7 @@
 package com.oceanlk.backend.model;
 
+import com.oceanlk.backend.service.cache.PublicContentCacheListener;
+import com.oceanlk.backend.service.search.SearchIndexListener;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +12,7 @@ import jakarta.persistence.*;
 @AllArgsConstructor
 @Entity
 @Table(name = "partners")
+@EntityListeners({ SearchIndexListener.class, PublicContentCacheListener.class })
 public class Partner {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
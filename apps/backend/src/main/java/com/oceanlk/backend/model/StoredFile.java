@@ -5,8 +5,16 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import jakarta.persistence.*;
 
+import java.time.LocalDateTime;
+
+/**
+ * Metadata of an uploaded file. The payload is deliberately not mapped here:
+ * loading this entity (findById, dirty checking, deleteById) never reads the
+ * data column. Bytes are read and written through the file's BlobStore; see
+ * {@link StoredFilePayload} for the column itself.
+ */
 @Entity
-@Table(name = "stored_files")
+@Table(name = "stored_files", indexes = @Index(name = "idx_stored_files_content_hash", columnList = "content_hash"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,14 +28,47 @@ public class StoredFile {
     private String contentType;
     private String groupName;
 
-    @Lob
-    @Column(name = "data", columnDefinition = "BYTEA")
-    private byte[] data;
+    // SHA-256 of the payload (hex), used as the strong ETag and for deduplication
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Number of uploads sharing this row; the payload is deleted when it reaches zero
+    private Integer referenceCount;
+
+    private LocalDateTime createdAt;
+
+    // Last time an upload created or deduplicated onto this row; the orphan
+    // collector's grace period counts from here
+    private LocalDateTime lastUploadedAt;
+
+    private Long fileSize;
+
+    // Which BlobStore holds the payload (POSTGRES keeps it in the data column)
+    @Column(length = 16)
+    private String storageBackend;
+
+    // Layout metadata extracted after upload: pixel size and BlurHash
+    // placeholder for images, page count for PDFs
+    private Integer imageWidth;
+    private Integer imageHeight;
+    @Column(length = 64)
+    private String blurhash;
+    private Integer pageCount;
+    private LocalDateTime metadataExtractedAt;
+
+    // When the payload was copied out of the data column by the blob migration
+    private LocalDateTime migratedAt;
 
-    public StoredFile(String filename, String contentType, String groupName, byte[] data) {
+    public StoredFile(String filename, String contentType, String groupName, String contentHash, Long fileSize,
+            String storageBackend) {
         this.filename = filename;
         this.contentType = contentType;
         this.groupName = groupName;
-        this.data = data;
+        this.contentHash = contentHash;
+        this.fileSize = fileSize;
+        this.storageBackend = storageBackend;
+        this.referenceCount = 1;
+        this.createdAt = LocalDateTime.now();
+        this.lastUploadedAt = this.createdAt;
     }
 }
@@ -0,0 +1,25 @@
+package com.oceanlk.backend.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+
+/**
+ * The stored_files.data column, mapped on its own so that the schema still
+ * declares it while {@link StoredFile} stays metadata-only. The application
+ * never loads this entity; PostgresBlobStore reads and writes the column with
+ * chunked native queries.
+ */
+@Entity
+@Table(name = "stored_files")
+@Data
+@NoArgsConstructor
+public class StoredFilePayload {
+
+    @Id
+    private String id;
+
+    @Lob
+    @Column(name = "data", columnDefinition = "BYTEA")
+    private byte[] data;
+}
@@ -1,5 +1,7 @@
 package com.oceanlk.backend.model;
 
+import com.oceanlk.backend.service.cache.PublicContentCacheListener;
+import com.oceanlk.backend.service.search.SearchIndexListener;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -9,6 +11,7 @@ import jakarta.persistence.*;
 @Data
 @Entity
 @Table(name = "testimonials")
+@EntityListeners({ SearchIndexListener.class, PublicContentCacheListener.class })
 public class Testimonial {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
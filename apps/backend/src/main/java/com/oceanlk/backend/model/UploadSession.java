@@ -0,0 +1,49 @@
+package com.oceanlk.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resumable upload in progress. The client sends the file as a sequence of
+ * chunks at increasing offsets; receivedBytes is the offset to resume from.
+ */
+@Entity
+@Table(name = "upload_sessions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    private String filename;
+    private String contentType;
+    private String groupName;
+
+    private Long totalSize;
+    private Long receivedBytes;
+
+    private String createdBy; // Admin username
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Set once all chunks are in and the file has been stored
+    private String fileId;
+
+    public UploadSession(String filename, String contentType, String groupName, Long totalSize, String createdBy) {
+        this.filename = filename;
+        this.contentType = contentType;
+        this.groupName = groupName;
+        this.totalSize = totalSize;
+        this.receivedBytes = 0L;
+        this.createdBy = createdBy;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+}
@@ -0,0 +1,34 @@
+package com.oceanlk.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+
+/**
+ * One received chunk of a resumable upload, kept until the upload completes.
+ * Rows are written and read through JDBC so the data column is streamed.
+ */
+@Entity
+@Table(name = "upload_session_chunks", uniqueConstraints = @UniqueConstraint(
+        name = "uk_upload_session_chunks_offset", columnNames = { "session_id", "chunk_offset" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionChunk {
+
+    @Id
+    private String id;
+
+    @Column(name = "session_id", nullable = false)
+    private String sessionId;
+
+    @Column(name = "chunk_offset", nullable = false)
+    private Long chunkOffset;
+
+    private Long chunkLength;
+
+    @Lob
+    @Column(columnDefinition = "BYTEA")
+    private byte[] data;
+}
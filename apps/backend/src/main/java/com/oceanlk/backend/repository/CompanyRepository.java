@@ -2,8 +2,22 @@ package com.oceanlk.backend.repository;
 
 import com.oceanlk.backend.model.Company;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CompanyRepository extends JpaRepository<Company, String> {
+
+    /**
+     * Full-text matches ranked by ts_rank, using the generated search_vector
+     * column (see docs/DATABASE_MIGRATIONS.md). {@code query} is a
+     * to_tsquery('simple', ...) expression.
+     */
+    @Query(value = "SELECT * FROM companies WHERE search_vector @@ to_tsquery('simple', :query) "
+            + "ORDER BY ts_rank(search_vector, to_tsquery('simple', :query)) DESC, id LIMIT :limit",
+            nativeQuery = true)
+    List<Company> searchFullText(@Param("query") String query, @Param("limit") int limit);
 }
@@ -2,6 +2,8 @@ package com.oceanlk.backend.repository;
 
 import com.oceanlk.backend.model.CorporateLeader;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +13,12 @@ public interface CorporateLeaderRepository extends JpaRepository<CorporateLeader
     List<CorporateLeader> findByDepartmentOrderByDisplayOrderAsc(String department);
 
     List<CorporateLeader> findAllByOrderByDisplayOrderAsc();
+
+    /**
+     * See {@link CompanyRepository#searchFullText}
+     */
+    @Query(value = "SELECT * FROM corporate_leaders WHERE search_vector @@ to_tsquery('simple', :query) "
+            + "ORDER BY ts_rank(search_vector, to_tsquery('simple', :query)) DESC, id LIMIT :limit",
+            nativeQuery = true)
+    List<CorporateLeader> searchFullText(@Param("query") String query, @Param("limit") int limit);
 }
@@ -2,6 +2,8 @@ package com.oceanlk.backend.repository;
 
 import com.oceanlk.backend.model.Event;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -18,4 +20,12 @@ public interface EventRepository extends JpaRepository<Event, String> {
     List<Event> findByDateGreaterThanEqualOrderByDateAsc(LocalDate date);
 
     List<Event> findByDateLessThanOrderByDateDesc(LocalDate date);
+
+    /**
+     * See {@link CompanyRepository#searchFullText}
+     */
+    @Query(value = "SELECT * FROM events WHERE search_vector @@ to_tsquery('simple', :query) "
+            + "ORDER BY ts_rank(search_vector, to_tsquery('simple', :query)) DESC, id LIMIT :limit",
+            nativeQuery = true)
+    List<Event> searchFullText(@Param("query") String query, @Param("limit") int limit);
 }
@@ -2,6 +2,8 @@ package com.oceanlk.backend.repository;
 
 import com.oceanlk.backend.model.JobOpportunity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,4 +18,12 @@ public interface JobOpportunityRepository extends JpaRepository<JobOpportunity,
     List<JobOpportunity> findByFeaturedTrue();
 
     List<JobOpportunity> findByStatusOrderByPostedDateDesc(String status);
+
+    /**
+     * See {@link CompanyRepository#searchFullText}
+     */
+    @Query(value = "SELECT * FROM job_opportunities WHERE search_vector @@ to_tsquery('simple', :query) "
+            + "ORDER BY ts_rank(search_vector, to_tsquery('simple', :query)) DESC, id LIMIT :limit",
+            nativeQuery = true)
+    List<JobOpportunity> searchFullText(@Param("query") String query, @Param("limit") int limit);
 }
@@ -2,6 +2,8 @@ package com.oceanlk.backend.repository;
 
 import com.oceanlk.backend.model.MediaItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -32,4 +34,12 @@ public interface MediaItemRepository extends JpaRepository<MediaItem, String> {
     List<MediaItem> findByGroupAndStatusOrderByPublishedDateDesc(String group, String status);
 
     List<MediaItem> findByGroupOrderByPublishedDateDesc(String group);
+
+    /**
+     * See {@link CompanyRepository#searchFullText}
+     */
+    @Query(value = "SELECT * FROM media_items WHERE search_vector @@ to_tsquery('simple', :query) "
+            + "ORDER BY ts_rank(search_vector, to_tsquery('simple', :query)) DESC, id LIMIT :limit",
+            nativeQuery = true)
+    List<MediaItem> searchFullText(@Param("query") String query, @Param("limit") int limit);
 }
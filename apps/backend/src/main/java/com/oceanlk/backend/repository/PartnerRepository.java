@@ -2,6 +2,8 @@ package com.oceanlk.backend.repository;
 
 import com.oceanlk.backend.model.Partner;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +13,12 @@ public interface PartnerRepository extends JpaRepository<Partner, String> {
     List<Partner> findAllByOrderByDisplayOrderAsc();
 
     List<Partner> findByCategoryOrderByDisplayOrderAsc(String category);
+
+    /**
+     * See {@link CompanyRepository#searchFullText}
+     */
+    @Query(value = "SELECT * FROM partners WHERE search_vector @@ to_tsquery('simple', :query) "
+            + "ORDER BY ts_rank(search_vector, to_tsquery('simple', :query)) DESC, id LIMIT :limit",
+            nativeQuery = true)
+    List<Partner> searchFullText(@Param("query") String query, @Param("limit") int limit);
 }
@@ -1,9 +1,212 @@
 package com.oceanlk.backend.repository;
 
+import com.oceanlk.backend.dto.StoredFileLayout;
+import com.oceanlk.backend.dto.StoredFileMetadata;
 import com.oceanlk.backend.model.StoredFile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+
+    @Query(value = "SELECT id AS \"id\", filename AS \"filename\", content_type AS \"contentType\", "
+            + "group_name AS \"groupName\", COALESCE(file_size, octet_length(data)) AS \"size\", "
+            + "content_hash AS \"contentHash\", created_at AS \"createdAt\", "
+            + "COALESCE(storage_backend, 'POSTGRES') AS \"storageBackend\" "
+            + "FROM stored_files WHERE id = :id", nativeQuery = true)
+    Optional<StoredFileMetadata> findMetadataById(@Param("id") String id);
+
+    @Query(value = "SELECT id AS \"id\", filename AS \"filename\", content_type AS \"contentType\", "
+            + "group_name AS \"groupName\", COALESCE(file_size, octet_length(data)) AS \"size\", "
+            + "content_hash AS \"contentHash\", created_at AS \"createdAt\", "
+            + "COALESCE(storage_backend, 'POSTGRES') AS \"storageBackend\" "
+            + "FROM stored_files WHERE group_name = :groupName ORDER BY created_at DESC LIMIT :limit",
+            nativeQuery = true)
+    List<StoredFileMetadata> findMetadataByGroupName(@Param("groupName") String groupName,
+            @Param("limit") int limit);
+
+    /**
+     * Read a window of the payload. {@code offset} is 1-based, as in SQL
+     * substring(). Only cheap when the column uses uncompressed (EXTERNAL)
+     * storage, see docs/DATABASE_MIGRATIONS.md; a compressed value is
+     * decompressed from its start for every window.
+     */
+    @Query(value = "SELECT substring(data FROM :offset FOR :length) FROM stored_files WHERE id = :id", nativeQuery = true)
+    byte[] readDataChunk(@Param("id") String id, @Param("offset") int offset, @Param("length") int length);
+
+    /**
+     * Any complete copy of the given content, for the /api/files/{hash}/{name}
+     * URLs. Every row with this hash holds the same bytes.
+     */
+    @Query(value = "SELECT id AS \"id\", filename AS \"filename\", content_type AS \"contentType\", "
+            + "group_name AS \"groupName\", COALESCE(file_size, octet_length(data)) AS \"size\", "
+            + "content_hash AS \"contentHash\", created_at AS \"createdAt\", "
+            + "COALESCE(storage_backend, 'POSTGRES') AS \"storageBackend\" "
+            + "FROM stored_files WHERE content_hash = :hash ORDER BY created_at, id LIMIT 1", nativeQuery = true)
+    Optional<StoredFileMetadata> findMetadataByContentHash(@Param("hash") String hash);
+
+    /**
+     * The copy uploads deduplicate onto; the same row
+     * {@link #findMetadataByContentHash} serves
+     */
+    @Query(value = "SELECT id FROM stored_files WHERE content_hash = :hash ORDER BY created_at, id LIMIT 1",
+            nativeQuery = true)
+    Optional<String> findIdByContentHash(@Param("hash") String hash);
+
+    /**
+     * Record the hash once a streamed upload has been fully written. Until
+     * then the row is invisible to deduplication lookups.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE stored_files SET content_hash = :hash WHERE id = :id", nativeQuery = true)
+    int setContentHash(@Param("id") String id, @Param("hash") String hash);
+
+    /**
+     * @return 1 if the row still exists and now has one more reference, 0 if it
+     *         was deleted in the meantime
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE stored_files SET reference_count = COALESCE(reference_count, 1) + 1, "
+            + "last_uploaded_at = now() WHERE id = :id", nativeQuery = true)
+    int incrementReferenceCount(@Param("id") String id);
+
+    /**
+     * @return 1 if other references remain, 0 if this was the last one
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE stored_files SET reference_count = reference_count - 1 "
+            + "WHERE id = :id AND reference_count > 1", nativeQuery = true)
+    int decrementReferenceCount(@Param("id") String id);
+
+    /**
+     * Delete the row only if nobody re-referenced it since the last decrement
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM stored_files WHERE id = :id AND COALESCE(reference_count, 1) <= 1",
+            nativeQuery = true)
+    int deleteIfUnreferenced(@Param("id") String id);
+
+    /**
+     * Fill in hashes for up to {@code limit} files uploaded before
+     * content_hash existed. Hashing runs inside PostgreSQL so no payload is
+     * transferred. Rows another replica is already hashing are skipped.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE stored_files SET content_hash = encode(sha256(data), 'hex') WHERE id IN ("
+            + "SELECT id FROM stored_files WHERE content_hash IS NULL AND data IS NOT NULL "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int backfillContentHashes(@Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE stored_files SET created_at = now() WHERE id IN ("
+            + "SELECT id FROM stored_files WHERE created_at IS NULL "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int backfillCreatedAt(@Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE stored_files SET reference_count = 1 WHERE id IN ("
+            + "SELECT id FROM stored_files WHERE reference_count IS NULL "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int backfillReferenceCounts(@Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE stored_files SET file_size = octet_length(data) WHERE id IN ("
+            + "SELECT id FROM stored_files WHERE file_size IS NULL AND data IS NOT NULL "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int backfillFileSizes(@Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE stored_files SET storage_backend = 'POSTGRES' WHERE id IN ("
+            + "SELECT id FROM stored_files WHERE storage_backend IS NULL "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int backfillStorageBackends(@Param("limit") int limit);
+
+    @Query(value = "SELECT id FROM stored_files WHERE storage_backend = 'POSTGRES' AND data IS NOT NULL "
+            + "ORDER BY created_at LIMIT :limit", nativeQuery = true)
+    List<String> findIdsStoredInDatabase(@Param("limit") int limit);
+
+    /**
+     * Point a row at its new backend. The payload stays in the data column
+     * until {@link #clearMigratedData} runs, so downloads already streaming
+     * from PostgreSQL can finish.
+     *
+     * @return 1 if this call switched the row, 0 if it was deleted or already
+     *         switched by another replica
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE stored_files SET storage_backend = :backend, migrated_at = now() "
+            + "WHERE id = :id AND storage_backend = 'POSTGRES'", nativeQuery = true)
+    int markMigrated(@Param("id") String id, @Param("backend") String backend);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE stored_files SET data = NULL WHERE storage_backend <> 'POSTGRES' "
+            + "AND data IS NOT NULL AND migrated_at < :cutoff", nativeQuery = true)
+    int clearMigratedData(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Files not uploaded since {@code cutoff}, in ID order after {@code afterId},
+     * for the orphan collector's sweep
+     */
+    @Query(value = "SELECT id AS \"id\", filename AS \"filename\", content_type AS \"contentType\", "
+            + "group_name AS \"groupName\", COALESCE(file_size, octet_length(data)) AS \"size\", "
+            + "content_hash AS \"contentHash\", created_at AS \"createdAt\", "
+            + "COALESCE(storage_backend, 'POSTGRES') AS \"storageBackend\" "
+            + "FROM stored_files WHERE COALESCE(last_uploaded_at, created_at) < :cutoff AND id > :afterId "
+            + "ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<StoredFileMetadata> findMetadataUploadedBefore(@Param("cutoff") LocalDateTime cutoff,
+            @Param("afterId") String afterId, @Param("limit") int limit);
+
+    /**
+     * Delete an unreferenced file, unless an upload deduplicated onto it
+     * after {@code cutoff}
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM stored_files WHERE id = :id "
+            + "AND COALESCE(last_uploaded_at, created_at) < :cutoff", nativeQuery = true)
+    int deleteIfUploadedBefore(@Param("id") String id, @Param("cutoff") LocalDateTime cutoff);
+
+    @Query(value = "SELECT id AS \"id\", content_hash AS \"contentHash\", image_width AS \"width\", "
+            + "image_height AS \"height\", blurhash AS \"blurhash\", page_count AS \"pageCount\" "
+            + "FROM stored_files WHERE (id IN (:keys) OR content_hash IN (:keys)) "
+            + "AND metadata_extracted_at IS NOT NULL", nativeQuery = true)
+    List<StoredFileLayout> findLayoutsByIdsOrHashes(@Param("keys") Collection<String> keys);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE stored_files SET image_width = :width, image_height = :height, blurhash = :blurhash, "
+            + "page_count = :pageCount, metadata_extracted_at = now() WHERE id = :id", nativeQuery = true)
+    int saveLayout(@Param("id") String id, @Param("width") Integer width, @Param("height") Integer height,
+            @Param("blurhash") String blurhash, @Param("pageCount") Integer pageCount);
+
+    /**
+     * Images and PDFs whose layout metadata has not been extracted yet
+     */
+    @Query(value = "SELECT id FROM stored_files WHERE metadata_extracted_at IS NULL "
+            + "AND (content_type LIKE 'image/%' OR content_type = 'application/pdf') "
+            + "ORDER BY created_at LIMIT :limit", nativeQuery = true)
+    List<String> findIdsWithoutLayout(@Param("limit") int limit);
+
+    @Query(value = "SELECT storage_backend FROM stored_files WHERE id = :id", nativeQuery = true)
+    Optional<String> findStorageBackendById(@Param("id") String id);
 }
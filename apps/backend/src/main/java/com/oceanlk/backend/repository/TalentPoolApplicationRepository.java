@@ -1,7 +1,10 @@
 package com.oceanlk.backend.repository;
 
 import com.oceanlk.backend.model.TalentPoolApplication;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -17,4 +20,15 @@ public interface TalentPoolApplicationRepository extends JpaRepository<TalentPoo
     List<TalentPoolApplication> findBySubmittedDateBetween(LocalDateTime start, LocalDateTime end);
 
     List<TalentPoolApplication> findAllByOrderBySubmittedDateDesc();
+
+    /**
+     * Keyset page: applications submitted up to end that sort after
+     * (afterDate, afterId), oldest first. Pass an empty afterId to start at
+     * afterDate itself.
+     */
+    @Query("SELECT a FROM TalentPoolApplication a WHERE a.submittedDate <= :end "
+            + "AND (a.submittedDate > :afterDate OR (a.submittedDate = :afterDate AND a.id > :afterId)) "
+            + "ORDER BY a.submittedDate, a.id")
+    List<TalentPoolApplication> findSubmittedAfter(@Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") String afterId, @Param("end") LocalDateTime end, Pageable pageable);
 }
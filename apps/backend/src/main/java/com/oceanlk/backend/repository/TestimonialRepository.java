@@ -2,8 +2,20 @@ package com.oceanlk.backend.repository;
 
 import com.oceanlk.backend.model.Testimonial;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface TestimonialRepository extends JpaRepository<Testimonial, Integer> {
+
+    /**
+     * See {@link CompanyRepository#searchFullText}
+     */
+    @Query(value = "SELECT * FROM testimonials WHERE search_vector @@ to_tsquery('simple', :query) "
+            + "ORDER BY ts_rank(search_vector, to_tsquery('simple', :query)) DESC, id LIMIT :limit",
+            nativeQuery = true)
+    List<Testimonial> searchFullText(@Param("query") String query, @Param("limit") int limit);
 }
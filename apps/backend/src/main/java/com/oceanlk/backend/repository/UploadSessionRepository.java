@@ -0,0 +1,23 @@
+package com.oceanlk.backend.repository;
+
+import com.oceanlk.backend.model.UploadSession;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    /**
+     * Row-locked read so that chunks for one session are appended one at a time
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<UploadSession> findWithLockById(String id);
+
+    List<UploadSession> findByUpdatedAtBefore(LocalDateTime cutoff);
+}
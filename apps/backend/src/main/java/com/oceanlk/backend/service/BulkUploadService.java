@@ -0,0 +1,264 @@
+package com.oceanlk.backend.service;
+
+import com.oceanlk.backend.model.MediaItem;
+import com.oceanlk.backend.repository.MediaItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Uploads a whole gallery album in one request, either as many multipart
+ * files or as a single ZIP. Each image is stored on its own virtual thread;
+ * a semaphore shared by all bulk uploads bounds how many are written at once
+ * so that the connection pool and blob store are not swamped.
+ */
+@Service
+@Slf4j
+public class BulkUploadService {
+
+    private static final Map<String, String> IMAGE_EXTENSIONS = Map.of(
+            "jpg", "image/jpeg",
+            "jpeg", "image/jpeg",
+            "png", "image/png",
+            "gif", "image/gif",
+            "webp", "image/webp");
+
+    private final FileStorageService fileStorageService;
+    private final MediaItemRepository mediaRepository;
+    private final PendingChangeService pendingChangeService;
+    private final AuditLogService auditLogService;
+    private final Semaphore uploadPermits;
+
+    // Same limit as single uploads through /api/admin/media/upload
+    @Value("${app.files.bulk.max-file-size:20971520}")
+    private long maxFileSize;
+
+    @Value("${app.files.bulk.max-files:500}")
+    private int maxFiles;
+
+    public BulkUploadService(FileStorageService fileStorageService, MediaItemRepository mediaRepository,
+            PendingChangeService pendingChangeService, AuditLogService auditLogService,
+            @Value("${app.files.bulk.max-concurrency:4}") int maxConcurrency) {
+        this.fileStorageService = fileStorageService;
+        this.mediaRepository = mediaRepository;
+        this.pendingChangeService = pendingChangeService;
+        this.auditLogService = auditLogService;
+        this.uploadPermits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Outcome for one file of a bulk upload: either url or error is set
+     */
+    public record UploadedFile(String filename, String url, String error) {
+    }
+
+    /**
+     * Store every file, in parallel, and return the results in request order
+     */
+    public List<UploadedFile> uploadFiles(List<MultipartFile> files, String group) throws InterruptedException {
+        if (files.size() > maxFiles) {
+            throw new IllegalArgumentException("Too many files. Maximum is " + maxFiles + " per request.");
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<UploadedFile>> results = new ArrayList<>();
+            for (MultipartFile file : files) {
+                String filename = file.getOriginalFilename();
+                results.add(submit(executor, filename, () -> {
+                    if (file.getSize() > maxFileSize) {
+                        throw new IOException("File too large. Maximum size is " + maxFileSize / (1024 * 1024) + "MB");
+                    }
+                    if (!fileStorageService.isImage(file)) {
+                        throw new IOException("Only images (jpg, png, gif, webp) can be added to an album");
+                    }
+                    return fileStorageService.saveFile(file, group);
+                }));
+            }
+            return collect(results);
+        }
+    }
+
+    /**
+     * Store every image in a ZIP archive. Entries are read one after another
+     * (a ZIP stream cannot be read in parallel) and handed to upload threads;
+     * an entry is only read once an upload slot is free, and the slot goes
+     * with it to its thread, so at most max-concurrency entries are held in
+     * memory at a time. If the archive turns out to be unreadable or too
+     * large, the images already stored from it are deleted again, since
+     * nothing will refer to them.
+     */
+    public List<UploadedFile> uploadZip(MultipartFile zip, String group) throws IOException, InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+                ZipInputStream in = new ZipInputStream(zip.getInputStream())) {
+            List<Future<UploadedFile>> results = new ArrayList<>();
+            try {
+                submitEntries(in, executor, group, results);
+            } catch (IOException | RuntimeException | InterruptedException e) {
+                // Waits for the uploads already running
+                executor.close();
+                deleteStored(results);
+                throw e;
+            }
+            return collect(results);
+        }
+    }
+
+    private void submitEntries(ZipInputStream in, ExecutorService executor, String group,
+            List<Future<UploadedFile>> results) throws IOException, InterruptedException {
+        ZipEntry entry;
+        while ((entry = in.getNextEntry()) != null) {
+            String filename = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+            // Folders and macOS resource forks / hidden files
+            if (entry.isDirectory() || filename.isEmpty() || filename.startsWith(".")
+                    || entry.getName().startsWith("__MACOSX/")) {
+                continue;
+            }
+            if (results.size() >= maxFiles) {
+                throw new IllegalArgumentException("Too many files. Maximum is " + maxFiles + " per archive.");
+            }
+
+            String contentType = IMAGE_EXTENSIONS.get(extension(filename));
+            if (contentType == null) {
+                results.add(CompletableFuture.completedFuture(
+                        new UploadedFile(filename, null, "Unsupported file type")));
+                continue;
+            }
+
+            uploadPermits.acquire();
+            byte[] data;
+            try {
+                // Bounded read: the size in the entry header cannot be trusted
+                data = in.readNBytes((int) Math.min(maxFileSize + 1, Integer.MAX_VALUE));
+            } catch (IOException | RuntimeException e) {
+                uploadPermits.release();
+                throw e;
+            }
+            if (data.length > maxFileSize) {
+                uploadPermits.release();
+                results.add(CompletableFuture.completedFuture(new UploadedFile(filename, null,
+                        "File too large. Maximum size is " + maxFileSize / (1024 * 1024) + "MB")));
+                continue;
+            }
+
+            results.add(submitWithPermit(executor, filename, () -> {
+                try (InputStream body = new ByteArrayInputStream(data)) {
+                    return fileStorageService.getFileUrl(fileStorageService.storeStream(body, data.length,
+                            filename, contentType, group));
+                }
+            }));
+        }
+    }
+
+    /**
+     * Release the files stored by finished uploads
+     */
+    private void deleteStored(List<Future<UploadedFile>> futures) {
+        for (Future<UploadedFile> future : futures) {
+            if (future.state() == Future.State.SUCCESS && future.resultNow().url() != null) {
+                fileStorageService.deleteFile(future.resultNow().url());
+            }
+        }
+    }
+
+    /**
+     * Create the album from the uploaded images, following the same rules as
+     * POST /api/admin/media: super admins publish directly (with a history
+     * entry), other admins submit it for approval. Runs in one transaction.
+     *
+     * @return the saved MediaItem, or the PendingChange awaiting approval
+     */
+    @Transactional
+    public Object createAlbum(MediaItem album, List<String> imageUrls, String username, boolean isSuperAdmin) {
+        album.setGalleryImages(new ArrayList<>(imageUrls));
+        album.setPhotoCount(imageUrls.size());
+        if (album.getImageUrl() == null || album.getImageUrl().isEmpty()) {
+            album.setImageUrl(imageUrls.get(0));
+        }
+
+        if (isSuperAdmin) {
+            MediaItem savedItem = mediaRepository.save(album);
+            pendingChangeService.createApprovedChange(
+                    "MediaItem", savedItem.getId(), "CREATE", username, savedItem, null);
+            auditLogService.logAction(username, "CREATE", "MediaItem", savedItem.getId(),
+                    "Created album: " + savedItem.getTitle() + " (" + imageUrls.size() + " photos)");
+            return savedItem;
+        }
+
+        Object pendingChange = pendingChangeService.createPendingChange(
+                "MediaItem", null, "CREATE", username, album, null);
+        auditLogService.logAction(username, "SUBMIT_FOR_APPROVAL", "MediaItem", null,
+                "Submitted new album for approval: " + album.getTitle() + " (" + imageUrls.size() + " photos)");
+        return pendingChange;
+    }
+
+    private interface Upload {
+        String run() throws Exception;
+    }
+
+    /**
+     * Run an upload on a virtual thread once a permit is free
+     */
+    private Future<UploadedFile> submit(ExecutorService executor, String filename, Upload upload)
+            throws InterruptedException {
+        uploadPermits.acquire();
+        return submitWithPermit(executor, filename, upload);
+    }
+
+    /**
+     * Run an upload on a virtual thread with a permit the caller already
+     * holds; the permit is released when the upload finishes.
+     */
+    private Future<UploadedFile> submitWithPermit(ExecutorService executor, String filename, Upload upload) {
+        try {
+            return executor.submit(() -> {
+                try {
+                    return new UploadedFile(filename, upload.run(), null);
+                } catch (Exception e) {
+                    log.warn("Bulk upload of {} failed: {}", filename, e.getMessage());
+                    return new UploadedFile(filename, null, e.getMessage());
+                } finally {
+                    uploadPermits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            uploadPermits.release();
+            throw e;
+        }
+    }
+
+    private List<UploadedFile> collect(List<Future<UploadedFile>> futures) throws InterruptedException {
+        List<UploadedFile> results = new ArrayList<>();
+        for (Future<UploadedFile> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                // Uploads catch their own failures; this is only reached on an unexpected error
+                results.add(new UploadedFile(null, null, e.getCause().getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private static String extension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot < 0 ? "" : filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,20 +1,58 @@
 package com.oceanlk.backend.service;
 
+import com.oceanlk.backend.dto.StoredFileMetadata;
 import com.oceanlk.backend.model.StoredFile;
 import com.oceanlk.backend.repository.StoredFileRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.oceanlk.backend.service.storage.BlobStore;
+import com.oceanlk.backend.service.storage.FileStoredEvent;
+import com.oceanlk.backend.service.storage.HotFileCache;
+import com.oceanlk.backend.service.storage.PostgresBlobStore;
+import com.oceanlk.backend.service.storage.ValidatingInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 public class FileStorageService {
 
-    @Autowired
-    private StoredFileRepository storedFileRepository;
+    private final StoredFileRepository storedFileRepository;
+
+    private final Map<String, BlobStore> blobStores;
+
+    // Backend that receives new uploads
+    private final BlobStore activeBlobStore;
+
+    // Small, frequently requested files served without touching the database
+    private final HotFileCache hotFileCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public FileStorageService(StoredFileRepository storedFileRepository, List<BlobStore> blobStores,
+            HotFileCache hotFileCache, ApplicationEventPublisher eventPublisher,
+            @Value("${app.files.blob-store:POSTGRES}") String activeBackend) {
+        this.storedFileRepository = storedFileRepository;
+        this.hotFileCache = hotFileCache;
+        this.eventPublisher = eventPublisher;
+        this.blobStores = blobStores.stream()
+                .collect(Collectors.toMap(BlobStore::getBackend, Function.identity()));
+        this.activeBlobStore = findBlobStore(this.blobStores, activeBackend.toUpperCase());
+    }
 
     // Allowed file types
     private static final List<String> ALLOWED_IMAGE_TYPES = Arrays.asList(
@@ -25,58 +63,151 @@ public class FileStorageService {
             "application/pdf", "application/msword",
             "application/vnd.openxmlformats-officedocument.wordprocessingml.document");
 
+    public static final long MAX_FILE_SIZE = 50 * 1024 * 1024; // 50MB
+
+    public static final String FILE_URL_PREFIX = "/api/files/";
+
+    // First path segment of a file URL: a file ID, or a content hash for immutable URLs
+    public static final Pattern FILE_URL = Pattern.compile("/api/files/([A-Za-z0-9-]{8,64})");
+
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
+
     /**
      * Save uploaded file to PostgreSQL stored_files table
      * 
      * @param file  MultipartFile to save
      * @param group Group name (stored as metadata)
-     * @return relative URL path to the saved file (/api/files/{id})
+     * @return relative URL path to the saved file (/api/files/{hash}/{name})
      */
     public String saveFile(MultipartFile file, String group) throws IOException {
-        validateFile(file);
+        // Return URL to access the file
+        return getFileUrl(saveFileRaw(file, group));
+    }
+
+    /**
+     * Public URL of a stored file. Files with a content hash get the immutable
+     * /api/files/{hash}/{name} form; the rest keep /api/files/{id}.
+     */
+    public String getFileUrl(String id) {
+        StoredFileMetadata metadata = getFileMetadata(id);
+        return metadata != null ? getFileUrl(metadata) : FILE_URL_PREFIX + id;
+    }
 
-        StoredFile storedFile = new StoredFile(
-                file.getOriginalFilename(),
-                file.getContentType(),
-                group,
-                file.getBytes()
-        );
+    public static String getFileUrl(StoredFileMetadata metadata) {
+        if (metadata.getContentHash() == null) {
+            return FILE_URL_PREFIX + metadata.getId();
+        }
+        return FILE_URL_PREFIX + metadata.getContentHash() + "/" + toUrlName(metadata.getFilename());
+    }
 
-        StoredFile savedFile = storedFileRepository.save(storedFile);
+    public static boolean isContentHash(String key) {
+        return key != null && CONTENT_HASH.matcher(key).matches();
+    }
 
-        // Return URL to access the file
-        return "/api/files/" + savedFile.getId();
+    /**
+     * The name segment only makes URLs readable; it is not used for lookup.
+     * Anything outside [A-Za-z0-9._-] becomes a dash so no escaping is needed.
+     */
+    private static String toUrlName(String filename) {
+        if (filename == null) {
+            return "file";
+        }
+        String name = filename.replaceAll("[^A-Za-z0-9._-]+", "-").replaceAll("^[-.]+", "");
+        if (name.length() > 100) {
+            name = name.substring(name.length() - 100);
+        }
+        return name.isEmpty() ? "file" : name;
     }
 
     /**
-     * Save uploaded file and return the raw saved StoredFile entity
+     * Save uploaded file and return its raw ID.
+     *
+     * The part is piped into the blob store from the servlet container's
+     * temporary file rather than loaded with getBytes(), so memory use does
+     * not grow with the upload size.
      */
-    public StoredFile saveFileRaw(MultipartFile file, String group) throws IOException {
+    public String saveFileRaw(MultipartFile file, String group) throws IOException {
         validateFile(file);
 
-        StoredFile storedFile = new StoredFile(
-                file.getOriginalFilename(),
-                file.getContentType(),
-                group,
-                file.getBytes()
-        );
+        try (InputStream in = file.getInputStream()) {
+            return storeStream(in, file.getSize(), file.getOriginalFilename(), file.getContentType(), group);
+        }
+    }
 
-        return storedFileRepository.save(storedFile);
+    /**
+     * Stream a payload of known length into the active blob store, checking
+     * its size and leading bytes while it is copied.
+     *
+     * Uploads are content-addressed: if a file with the same SHA-256 is
+     * already stored, its reference count is bumped, the freshly written copy
+     * is discarded and the existing ID is returned, keeping its name and
+     * content type. Keying on the hash alone, like the /api/files/{hash} URLs
+     * do, means one hash always serves one content type.
+     *
+     * @return raw ID of the stored file
+     */
+    public String storeStream(InputStream data, long size, String filename, String contentType, String group)
+            throws IOException {
+        validateUpload(contentType, size);
+
+        StoredFile storedFile = new StoredFile(filename, contentType, group, null, size,
+                activeBlobStore.getBackend());
+        // Flushed so the blob store can update the row even inside a surrounding transaction
+        String id = storedFileRepository.saveAndFlush(storedFile).getId();
+
+        ValidatingInputStream in = new ValidatingInputStream(data, contentType, size, true);
+        try {
+            activeBlobStore.write(id, in, size);
+            in.verifyComplete();
+        } catch (IOException | RuntimeException e) {
+            // Don't leave a metadata row pointing at a payload that was never written
+            discard(id);
+            throw e;
+        }
+
+        // The hash is only known once every byte has gone past
+        String hash = in.getHexDigest();
+        Optional<String> existingId = storedFileRepository.findIdByContentHash(hash);
+        // The increment fails if the existing row was deleted since the lookup
+        if (existingId.isPresent() && storedFileRepository.incrementReferenceCount(existingId.get()) == 1) {
+            discard(id);
+            return existingId.get();
+        }
+
+        storedFileRepository.setContentHash(id, hash);
+        eventPublisher.publishEvent(new FileStoredEvent(id, contentType));
+        return id;
+    }
+
+    /**
+     * Remove an upload that failed or turned out to be a duplicate
+     */
+    private void discard(String id) {
+        try {
+            if (!PostgresBlobStore.BACKEND.equals(activeBlobStore.getBackend())) {
+                activeBlobStore.delete(id);
+            }
+        } catch (IOException e) {
+            System.err.println("Error discarding upload " + id + ": " + e.getMessage());
+        }
+        storedFileRepository.deleteById(id);
     }
 
     /**
      * Delete file from PostgreSQL
      * 
-     * @param fileUrl URL path to the file (e.g., /api/files/{id})
+     * @param fileUrl URL path to the file (e.g., /api/files/{id} or /api/files/{hash}/{name})
      */
     public void deleteFile(String fileUrl) {
-        if (fileUrl == null || !fileUrl.contains("/api/files/")) {
+        if (fileUrl == null || !fileUrl.contains(FILE_URL_PREFIX)) {
             return;
         }
 
         try {
-            String fileId = fileUrl.substring(fileUrl.lastIndexOf("/") + 1);
-            storedFileRepository.deleteById(fileId);
+            String fileId = resolveFileId(fileUrl);
+            if (fileId != null) {
+                releaseReference(fileId);
+            }
         } catch (Exception e) {
             // Log error but don't throw exception to avoid breaking flow
             System.err.println("Error deleting file: " + e.getMessage());
@@ -91,14 +222,64 @@ public class FileStorageService {
             return;
         }
         try {
-            storedFileRepository.deleteById(id);
+            releaseReference(id);
         } catch (Exception e) {
             System.err.println("Error deleting file by raw ID: " + e.getMessage());
         }
     }
 
     /**
-     * Retrieve file resource from PostgreSQL
+     * Move one reference from a file to another copy of the same content,
+     * when a link to {@code fromId} has been replaced by one that resolves to
+     * {@code toId}
+     *
+     * @return false if {@code toId} was deleted meanwhile; nothing is released
+     */
+    public boolean moveReference(String fromId, String toId) {
+        if (storedFileRepository.incrementReferenceCount(toId) == 0) {
+            return false;
+        }
+        deleteFileRaw(fromId);
+        return true;
+    }
+
+    /**
+     * Drop one reference to a stored file, removing the bytes once no
+     * uploads refer to them any more
+     */
+    private void releaseReference(String id) throws IOException {
+        if (storedFileRepository.decrementReferenceCount(id) == 0) {
+            String backend = storedFileRepository.findStorageBackendById(id).orElse(PostgresBlobStore.BACKEND);
+            if (storedFileRepository.deleteIfUnreferenced(id) == 1) {
+                hotFileCache.invalidate(id);
+                if (!PostgresBlobStore.BACKEND.equals(backend)) {
+                    // The data column went with the row; other backends hold the bytes elsewhere
+                    getBlobStore(backend).delete(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove a file that no entity refers to any more, whatever its reference
+     * count, provided nothing was uploaded onto it since {@code cutoff}
+     *
+     * @return true if the file was deleted
+     */
+    public boolean purgeOrphan(StoredFileMetadata file, LocalDateTime cutoff) throws IOException {
+        if (storedFileRepository.deleteIfUploadedBefore(file.getId(), cutoff) == 0) {
+            return false;
+        }
+        hotFileCache.invalidate(file.getId());
+        if (!PostgresBlobStore.BACKEND.equals(file.getStorageBackend())) {
+            getBlobStore(file.getStorageBackend()).delete(file.getId());
+        }
+        return true;
+    }
+
+    /**
+     * Retrieve the stored_files row. The entity carries metadata only; the
+     * payload is read through {@link #streamFile}.
      * 
      * @param id File UUID string
      * @return StoredFile
@@ -107,6 +288,110 @@ public class FileStorageService {
         return storedFileRepository.findById(id).orElse(null);
     }
 
+    /**
+     * Retrieve file metadata (name, type, size) without loading the payload
+     *
+     * @param id File UUID string
+     * @return StoredFileMetadata, or null if the file does not exist
+     */
+    public StoredFileMetadata getFileMetadata(String id) {
+        StoredFileMetadata cached = hotFileCache.getMetadata(id);
+        if (cached != null) {
+            return cached;
+        }
+        return storedFileRepository.findMetadataById(id).orElse(null);
+    }
+
+    /**
+     * Metadata of a copy of the content with this SHA-256 hash
+     */
+    public StoredFileMetadata getFileMetadataByHash(String hash) {
+        StoredFileMetadata cached = hotFileCache.getMetadataByHash(hash);
+        if (cached != null) {
+            return cached;
+        }
+        StoredFileMetadata metadata = storedFileRepository.findMetadataByContentHash(hash).orElse(null);
+        if (metadata != null) {
+            hotFileCache.putMetadataByHash(metadata);
+        }
+        return metadata;
+    }
+
+    /**
+     * ID of the file a /api/files/ URL points to, or null if there is none.
+     * A hashed URL resolves to the oldest row with that content, the one
+     * uploads deduplicate onto and FileUrlRewriter moves references to.
+     */
+    public String resolveFileId(String fileUrl) {
+        Matcher matcher = FILE_URL.matcher(fileUrl);
+        if (!matcher.find()) {
+            return null;
+        }
+        String key = matcher.group(1);
+        if (!isContentHash(key)) {
+            return key;
+        }
+        StoredFileMetadata metadata = getFileMetadataByHash(key);
+        return metadata != null ? metadata.getId() : null;
+    }
+
+    /**
+     * List files in a group, newest first, without reading any payloads
+     */
+    public List<StoredFileMetadata> listFiles(String group, int limit) {
+        return storedFileRepository.findMetadataByGroupName(group, limit);
+    }
+
+    /**
+     * Copy a file's payload to the given stream without materialising it in
+     * the heap; the backing BlobStore copies it in bounded chunks. Small files
+     * are served from, and loaded whole into, the hot-file cache.
+     *
+     * @param file   Metadata of the file to stream
+     * @param offset Zero-based position of the first byte to copy
+     * @param length Number of bytes to copy
+     * @param out    Destination stream (typically the servlet output)
+     */
+    public void streamFile(StoredFileMetadata file, long offset, long length, OutputStream out) throws IOException {
+        HotFileCache.CachedFile cached = hotFileCache.get(file.getId());
+        if (cached == null && hotFileCache.admits(file)) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.toIntExact(file.getSize()));
+            getBlobStore(file.getStorageBackend()).copyTo(file.getId(), 0, file.getSize(), buffer);
+            cached = hotFileCache.put(file, buffer.toByteArray());
+        }
+
+        if (cached != null) {
+            hotFileCache.copyTo(cached, offset, length, out);
+        } else {
+            getBlobStore(file.getStorageBackend()).copyTo(file.getId(), offset, length, out);
+        }
+        out.flush();
+    }
+
+    /**
+     * Local file holding the payload, when its backend keeps one, so the
+     * servlet container can send it with zero-copy I/O
+     */
+    public Optional<Path> getLocalPath(StoredFileMetadata file) {
+        return getBlobStore(file.getStorageBackend()).getLocalPath(file.getId());
+    }
+
+    public BlobStore getBlobStore(String backend) {
+        return findBlobStore(blobStores, backend);
+    }
+
+    private static BlobStore findBlobStore(Map<String, BlobStore> blobStores, String backend) {
+        BlobStore blobStore = blobStores.get(backend);
+        if (blobStore == null) {
+            throw new IllegalStateException("Unknown blob store: " + backend);
+        }
+        return blobStore;
+    }
+
+    public BlobStore getActiveBlobStore() {
+        return activeBlobStore;
+    }
+
     /**
      * Validate file type and size
      */
@@ -114,8 +399,18 @@ public class FileStorageService {
         if (file.isEmpty()) {
             throw new IOException("File is empty");
         }
+        validateUpload(file.getContentType(), file.getSize());
+    }
+
+    /**
+     * Validate the declared type and size of an upload before any bytes are
+     * stored. The content itself is checked as it streams in.
+     */
+    public void validateUpload(String contentType, long size) throws IOException {
+        if (size <= 0) {
+            throw new IOException("File is empty");
+        }
 
-        String contentType = file.getContentType();
         if (contentType == null) {
             throw new IOException("Could not determine file type");
         }
@@ -131,12 +426,20 @@ public class FileStorageService {
         }
 
         // Check file size (max 50MB)
-        long maxSize = 50 * 1024 * 1024; // 50MB
-        if (file.getSize() > maxSize) {
+        if (size > MAX_FILE_SIZE) {
             throw new IOException("File size exceeds maximum limit of 50MB");
         }
     }
 
+    /**
+     * Coarse kind of an allowed content type: "image", "video" or "document"
+     */
+    public String getFileType(String contentType) {
+        return ALLOWED_IMAGE_TYPES.contains(contentType) ? "image"
+                : ALLOWED_VIDEO_TYPES.contains(contentType) ? "video"
+                        : "document";
+    }
+
     /**
      * Check if file is an image
      */
@@ -0,0 +1,279 @@
+package com.oceanlk.backend.service;
+
+import com.oceanlk.backend.dto.StoredFileMetadata;
+import com.oceanlk.backend.util.WeightedLruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Resized and re-encoded variants of stored images, e.g. a 400px WebP
+ * thumbnail for a gallery grid. Variants are rendered with javax.imageio and
+ * Java2D, kept in a byte-bounded LRU cache, and rendered once no matter how
+ * many requests ask for the same uncached variant at the same time.
+ */
+@Service
+public class ImageDerivativeService {
+
+    // Source types ImageIO can decode without plugins
+    private static final List<String> RESIZABLE_TYPES = Arrays.asList(
+            "image/jpeg", "image/jpg", "image/png", "image/gif");
+
+    private final FileStorageService fileStorageService;
+    private final WeightedLruCache<Key, Derivative> cache;
+    private final ConcurrentHashMap<Key, CompletableFuture<Derivative>> inFlight = new ConcurrentHashMap<>();
+    private final Semaphore renderPermits;
+
+    // Requested widths are rounded up to one of these so clients cannot fill
+    // the cache with one variant per pixel
+    @Value("${app.files.derivatives.widths:160,320,480,640,800,1024,1280,1600,1920}")
+    private int[] widths;
+
+    // Larger sources are served as-is rather than decoded
+    @Value("${app.files.derivatives.max-source-pixels:40000000}")
+    private long maxSourcePixels;
+
+    @Value("${app.files.derivatives.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    public ImageDerivativeService(FileStorageService fileStorageService,
+            @Value("${app.files.derivatives.cache-size:67108864}") long cacheSize,
+            @Value("${app.files.derivatives.max-concurrent-renders:2}") int maxConcurrentRenders) {
+        this.fileStorageService = fileStorageService;
+        this.cache = new WeightedLruCache<>(cacheSize, derivative -> derivative.data().length);
+        this.renderPermits = new Semaphore(maxConcurrentRenders);
+    }
+
+    /**
+     * Cache key of a variant. Stored files are immutable, so the file ID is
+     * enough to identify the source bytes.
+     */
+    public record Key(String fileId, int width, String format) {
+    }
+
+    public record Derivative(byte[] data, String contentType) {
+    }
+
+    public boolean canResize(StoredFileMetadata metadata) {
+        return RESIZABLE_TYPES.contains(metadata.getContentType());
+    }
+
+    /**
+     * Normalise a requested width and format into the variant that will
+     * actually be produced
+     *
+     * @param width  requested width in pixels, or null to keep the original width
+     * @param format requested format (jpeg, png, webp), or null to keep the source format
+     */
+    public Key resolve(StoredFileMetadata metadata, Integer width, String format) {
+        int resolvedWidth = 0;
+        if (width != null && width > 0) {
+            resolvedWidth = widths[widths.length - 1];
+            for (int candidate : widths) {
+                if (candidate >= width) {
+                    resolvedWidth = candidate;
+                    break;
+                }
+            }
+        }
+
+        String resolvedFormat = format != null ? format.toLowerCase(Locale.ROOT) : "";
+        if (resolvedFormat.equals("jpg")) {
+            resolvedFormat = "jpeg";
+        }
+        if (!resolvedFormat.equals("jpeg") && !resolvedFormat.equals("png")
+                && !(resolvedFormat.equals("webp") && hasWriter("webp"))) {
+            // WebP needs an ImageIO plugin; without one, keep PNG sources
+            // lossless (they may have transparency) and send JPEG otherwise
+            resolvedFormat = "image/png".equals(metadata.getContentType())
+                    || "image/gif".equals(metadata.getContentType()) ? "png" : "jpeg";
+        }
+
+        return new Key(metadata.getId(), resolvedWidth, resolvedFormat);
+    }
+
+    /**
+     * Return the variant, rendering it if it is not cached. Concurrent
+     * callers asking for the same uncached variant share one render.
+     */
+    public Derivative getDerivative(StoredFileMetadata metadata, Key key) throws IOException {
+        Derivative cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<Derivative> future = new CompletableFuture<>();
+        CompletableFuture<Derivative> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+            }
+        }
+
+        try {
+            Derivative derivative = render(metadata, key);
+            cache.put(key, derivative);
+            future.complete(derivative);
+            return derivative;
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private Derivative render(StoredFileMetadata metadata, Key key) throws IOException {
+        renderPermits.acquireUninterruptibly();
+        try {
+            BufferedImage source = decode(metadata, key.width());
+            BufferedImage target = key.width() > 0 && key.width() < source.getWidth()
+                    ? scaleToWidth(source, key.width())
+                    : source;
+
+            boolean opaque = key.format().equals("jpeg");
+            return new Derivative(encode(flatten(target, opaque), key.format()), "image/" + key.format());
+        } finally {
+            renderPermits.release();
+        }
+    }
+
+    /**
+     * Decode the source, skipping rows and columns it has to spare for the
+     * target width. Subsampling stops at twice the target width, so the
+     * filtered downscale still has pixels to average and the result does not
+     * alias; a 40MP photo rendered at 400px is decoded at about 800px.
+     */
+    private BufferedImage decode(StoredFileMetadata metadata, int targetWidth) throws IOException {
+        try (InputStream in = fileStorageService.getBlobStore(metadata.getStorageBackend())
+                .openStream(metadata.getId());
+                ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageIn);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageIn, true, true);
+                // Check the header before allocating pixels for a decompression bomb
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxSourcePixels) {
+                    throw new IOException("Image is too large to resize");
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (targetWidth > 0) {
+                    int step = Math.max(1, reader.getWidth(0) / (2 * targetWidth));
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Downscale by successive halving, then a final bilinear pass, which keeps
+     * large reductions from aliasing without the cost of bicubic filtering
+     */
+    private BufferedImage scaleToWidth(BufferedImage source, int width) {
+        int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+        BufferedImage current = source;
+
+        while (current.getWidth() / 2 >= width) {
+            current = draw(current, current.getWidth() / 2, Math.max(1, current.getHeight() / 2));
+        }
+        return draw(current, width, height);
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * JPEG has no alpha channel, so transparent areas are composited onto white
+     */
+    private BufferedImage flatten(BufferedImage image, boolean opaque) {
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        if (image.getType() == type) {
+            return image;
+        }
+
+        BufferedImage target = new BufferedImage(image.getWidth(), image.getHeight(), type);
+        Graphics2D g = target.createGraphics();
+        try {
+            if (opaque) {
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            }
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encode(BufferedImage image, String format) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for " + format);
+        }
+
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed() && !format.equals("png")) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null && param.getCompressionTypes() != null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(jpegQuality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private boolean hasWriter(String format) {
+        return ImageIO.getImageWritersByFormatName(format).hasNext();
+    }
+}
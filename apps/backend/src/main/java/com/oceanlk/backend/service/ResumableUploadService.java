@@ -0,0 +1,250 @@
+package com.oceanlk.backend.service;
+
+import com.oceanlk.backend.exception.ResourceNotFoundException;
+import com.oceanlk.backend.exception.UploadOffsetMismatchException;
+import com.oceanlk.backend.model.UploadSession;
+import com.oceanlk.backend.repository.UploadSessionRepository;
+import com.oceanlk.backend.service.storage.ValidatingInputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resumable uploads for files too large to send reliably in one request.
+ *
+ * Each chunk is spooled from the request body to a file in
+ * app.files.upload.spool-dir and then inserted into upload_session_chunks, so
+ * it is never held in memory and a dropped connection only loses the chunk in
+ * flight. The spool directory should be on a real volume rather than a small
+ * /tmp tmpfs, since every session in progress may hold a chunk there. Once the last chunk is
+ * in, the chunks are replayed in order through FileStorageService, which
+ * validates, hashes and deduplicates the file as for a normal upload.
+ *
+ * Uploads are slow by nature, so no transaction (and so no pooled
+ * connection or row lock) is held while a client is sending or a file is
+ * being assembled; the session row is only locked to record the result.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResumableUploadService {
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final FileStorageService fileStorageService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.files.upload.max-chunk-size:8388608}")
+    private long maxChunkSize;
+
+    // Where chunks wait while they are received; empty = the system temp directory
+    @Value("${app.files.upload.spool-dir:}")
+    private String spoolDir;
+
+    // Sessions not touched for this long are abandoned and removed
+    @Value("${app.files.upload.session-ttl:24h}")
+    private Duration sessionTtl;
+
+    public UploadSession createSession(String filename, String contentType, long size, String group,
+            String username) throws IOException {
+        fileStorageService.validateUpload(contentType, size);
+        return uploadSessionRepository.save(new UploadSession(filename, contentType, group, size, username));
+    }
+
+    public UploadSession getSession(String id) {
+        return uploadSessionRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("UploadSession", "id", id));
+    }
+
+    public long getMaxChunkSize() {
+        return maxChunkSize;
+    }
+
+    /**
+     * Append the chunk starting at {@code offset}. Of two requests for the
+     * same offset, the second to lock the session sees the new offset and
+     * fails.
+     *
+     * @throws UploadOffsetMismatchException if {@code offset} is not where the
+     *                                       upload currently ends
+     */
+    public UploadSession appendChunk(String id, long offset, InputStream body, long length) throws IOException {
+        // Checked up front too, so a chunk that cannot be accepted is refused before it is read
+        UploadSession session = getSession(id);
+        checkChunk(session, offset, length);
+
+        Path spooled = createSpoolFile();
+        try {
+            // The first chunk carries the file signature, so a mislabelled file is
+            // refused before the rest of it is sent
+            ValidatingInputStream in = new ValidatingInputStream(body, session.getContentType(), length,
+                    offset == 0);
+            try (OutputStream out = Files.newOutputStream(spooled)) {
+                in.transferTo(out);
+            }
+            in.verifyComplete();
+
+            try (InputStream chunk = Files.newInputStream(spooled)) {
+                return transactionTemplate.execute(status -> insertChunk(id, offset, chunk, length));
+            }
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
+    }
+
+    private Path createSpoolFile() throws IOException {
+        if (spoolDir == null || spoolDir.isBlank()) {
+            return Files.createTempFile("upload-chunk-", ".part");
+        }
+        return Files.createTempFile(Files.createDirectories(Path.of(spoolDir)), "upload-chunk-", ".part");
+    }
+
+    private UploadSession insertChunk(String id, long offset, InputStream chunk, long length) {
+        UploadSession session = uploadSessionRepository.findWithLockById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("UploadSession", "id", id));
+        checkChunk(session, offset, length);
+
+        jdbcTemplate.update(
+                "INSERT INTO upload_session_chunks (id, session_id, chunk_offset, chunk_length, data) "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                ps -> {
+                    ps.setString(1, UUID.randomUUID().toString());
+                    ps.setString(2, id);
+                    ps.setLong(3, offset);
+                    ps.setLong(4, length);
+                    ps.setBinaryStream(5, chunk, length);
+                });
+
+        session.setReceivedBytes(offset + length);
+        session.setUpdatedAt(LocalDateTime.now());
+        return uploadSessionRepository.save(session);
+    }
+
+    private void checkChunk(UploadSession session, long offset, long length) {
+        if (session.getFileId() != null || offset != session.getReceivedBytes()) {
+            throw new UploadOffsetMismatchException(session.getReceivedBytes());
+        }
+        if (length <= 0 || length > maxChunkSize) {
+            throw new IllegalArgumentException("Chunk size must be between 1 and " + maxChunkSize + " bytes");
+        }
+        if (offset + length > session.getTotalSize()) {
+            throw new IllegalArgumentException("Chunk runs past the declared file size");
+        }
+    }
+
+    /**
+     * Assemble a fully received upload into a stored file. Safe to call again
+     * after a failure; a completed session just returns its file ID. If two
+     * calls race, the first to record its file wins and the other releases
+     * the copy it stored.
+     *
+     * @return raw ID of the stored file
+     */
+    public String complete(String id) throws IOException {
+        UploadSession session = getSession(id);
+        if (session.getFileId() != null) {
+            return session.getFileId();
+        }
+        if (!session.getReceivedBytes().equals(session.getTotalSize())) {
+            throw new UploadOffsetMismatchException(session.getReceivedBytes());
+        }
+
+        String fileId;
+        try (InputStream in = openChunks(id)) {
+            fileId = fileStorageService.storeStream(in, session.getTotalSize(), session.getFilename(),
+                    session.getContentType(), session.getGroupName());
+        }
+
+        if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> recordFile(id, fileId)))) {
+            fileStorageService.deleteFileRaw(fileId);
+            return getSession(id).getFileId();
+        }
+        return fileId;
+    }
+
+    /**
+     * @return false if the session was completed or cancelled meanwhile
+     */
+    private boolean recordFile(String id, String fileId) {
+        UploadSession session = uploadSessionRepository.findWithLockById(id).orElse(null);
+        if (session == null || session.getFileId() != null) {
+            return false;
+        }
+        jdbcTemplate.update("DELETE FROM upload_session_chunks WHERE session_id = ?", id);
+        session.setFileId(fileId);
+        session.setUpdatedAt(LocalDateTime.now());
+        uploadSessionRepository.save(session);
+        return true;
+    }
+
+    /**
+     * Abandon an upload and drop whatever chunks were received
+     */
+    @Transactional
+    public void cancel(String id) {
+        jdbcTemplate.update("DELETE FROM upload_session_chunks WHERE session_id = ?", id);
+        uploadSessionRepository.deleteById(id);
+    }
+
+    /**
+     * Remove sessions that were abandoned or completed more than the TTL ago
+     */
+    @Scheduled(fixedDelayString = "${app.files.upload.cleanup-interval-ms:3600000}", initialDelay = 60000)
+    public void removeExpiredSessions() {
+        List<UploadSession> expired = uploadSessionRepository
+                .findByUpdatedAtBefore(LocalDateTime.now().minus(sessionTtl));
+        for (UploadSession session : expired) {
+            try {
+                cancel(session.getId());
+            } catch (Exception e) {
+                log.warn("Error removing upload session {}: {}", session.getId(), e.getMessage());
+            }
+        }
+        if (!expired.isEmpty()) {
+            log.info("Removed {} expired upload sessions", expired.size());
+        }
+    }
+
+    /**
+     * Read the received chunks back in offset order, holding one at a time
+     */
+    private InputStream openChunks(String sessionId) {
+        List<String> chunkIds = jdbcTemplate.queryForList(
+                "SELECT id FROM upload_session_chunks WHERE session_id = ? ORDER BY chunk_offset",
+                String.class, sessionId);
+        Iterator<String> chunks = chunkIds.iterator();
+
+        return new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return chunks.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                byte[] data = jdbcTemplate.queryForObject(
+                        "SELECT data FROM upload_session_chunks WHERE id = ?", byte[].class, chunks.next());
+                return new ByteArrayInputStream(data);
+            }
+        });
+    }
+}
@@ -1,209 +1,162 @@
 package com.oceanlk.backend.service;
 
 import com.oceanlk.backend.dto.SearchDTO;
-import com.oceanlk.backend.model.*;
-import com.oceanlk.backend.repository.*;
-import lombok.RequiredArgsConstructor;
+import com.oceanlk.backend.service.search.SearchBackend;
+import com.oceanlk.backend.service.search.SearchCursor;
+import com.oceanlk.backend.service.search.SearchDocuments;
+import com.oceanlk.backend.service.search.SearchResultCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
-import java.util.stream.Collectors;
-
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Site search over companies, jobs, media, events, testimonials, partners
+ * and leaders. Matching is done by the {@link SearchBackend} selected with
+ * app.search.backend: MEMORY (an in-process index per replica) or POSTGRES
+ * (database full-text search, consistent across replicas).
+ *
+ * The categories are searched concurrently on virtual threads. A category
+ * that has not answered within app.search.category-timeout is left out and
+ * the response is marked partial, so one slow query cannot hold up the rest.
+ * Complete responses are cached by {@link SearchResultCache}. Facet counts
+ * are computed by the backends in the same pass as the results.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class SearchService {
 
-    private final CompanyRepository companyRepository;
-    private final JobOpportunityRepository jobOpportunityRepository;
-    private final MediaItemRepository mediaItemRepository;
-    private final EventRepository eventRepository;
-    private final TestimonialRepository testimonialRepository;
-    private final PartnerRepository partnerRepository;
-    private final CorporateLeaderRepository corporateLeaderRepository;
-
     private static final int MAX_RESULTS_PER_CATEGORY = 5;
 
-    public SearchDTO.SearchResponse search(String query) {
-        if (query == null || query.trim().isEmpty()) {
-            return new SearchDTO.SearchResponse(query, new HashMap<>(), 0);
-        }
+    private static final int MAX_PAGE_SIZE = 50;
 
-        String normalizedQuery = query.toLowerCase().trim();
-        Map<String, List<SearchDTO.SearchResultItem>> categorizedResults = new LinkedHashMap<>();
-        int totalResults = 0;
+    // Facet of match counts per category, alongside the backends' own facets
+    private static final String CATEGORY_FACET = "category";
 
-        // Search Companies
-        List<SearchDTO.SearchResultItem> companyResults = searchCompanies(normalizedQuery);
-        if (!companyResults.isEmpty()) {
-            categorizedResults.put("companies", companyResults);
-            totalResults += companyResults.size();
-        }
+    // Response order of the categories
+    private static final List<String> CATEGORIES = List.of(
+            "companies", "jobs", "media", "events", "testimonials", "partners", "leadership");
 
-        // Search Job Opportunities
-        List<SearchDTO.SearchResultItem> jobResults = searchJobs(normalizedQuery);
-        if (!jobResults.isEmpty()) {
-            categorizedResults.put("jobs", jobResults);
-            totalResults += jobResults.size();
-        }
+    private final SearchBackend searchBackend;
 
-        // Search Media Items
-        List<SearchDTO.SearchResultItem> mediaResults = searchMedia(normalizedQuery);
-        if (!mediaResults.isEmpty()) {
-            categorizedResults.put("media", mediaResults);
-            totalResults += mediaResults.size();
-        }
+    private final SearchResultCache resultCache;
 
-        // Search Events
-        List<SearchDTO.SearchResultItem> eventResults = searchEvents(normalizedQuery);
-        if (!eventResults.isEmpty()) {
-            categorizedResults.put("events", eventResults);
-            totalResults += eventResults.size();
-        }
+    private final Duration categoryTimeout;
 
-        // Search Testimonials
-        List<SearchDTO.SearchResultItem> testimonialResults = searchTestimonials(normalizedQuery);
-        if (!testimonialResults.isEmpty()) {
-            categorizedResults.put("testimonials", testimonialResults);
-            totalResults += testimonialResults.size();
-        }
-
-        // Search Partners
-        List<SearchDTO.SearchResultItem> partnerResults = searchPartners(normalizedQuery);
-        if (!partnerResults.isEmpty()) {
-            categorizedResults.put("partners", partnerResults);
-            totalResults += partnerResults.size();
-        }
-
-        // Search Leadership
-        List<SearchDTO.SearchResultItem> leadershipResults = searchLeadership(normalizedQuery);
-        if (!leadershipResults.isEmpty()) {
-            categorizedResults.put("leadership", leadershipResults);
-            totalResults += leadershipResults.size();
-        }
-
-        return new SearchDTO.SearchResponse(query, categorizedResults, totalResults);
-    }
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
 
-    private List<SearchDTO.SearchResultItem> searchCompanies(String query) {
-        return companyRepository.findAll().stream()
-                .filter(company -> matchesQuery(query, company.getTitle(), company.getDescription()))
-                .limit(MAX_RESULTS_PER_CATEGORY)
-                .map(company -> new SearchDTO.SearchResultItem(
-                        "company",
-                        company.getId(),
-                        company.getTitle(),
-                        truncate(company.getDescription(), 150),
-                        "/companies/" + company.getId(),
-                        company.getLogoUrl(),
-                        null))
-                .collect(Collectors.toList());
+    public SearchService(List<SearchBackend> searchBackends, SearchResultCache resultCache,
+            @Value("${app.search.backend:MEMORY}") String activeBackend,
+            @Value("${app.search.category-timeout:500ms}") Duration categoryTimeout) {
+        this.searchBackend = searchBackends.stream()
+                .filter(backend -> backend.getBackend().equalsIgnoreCase(activeBackend))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown search backend: " + activeBackend));
+        this.resultCache = resultCache;
+        this.categoryTimeout = categoryTimeout;
     }
 
-    private List<SearchDTO.SearchResultItem> searchJobs(String query) {
-        return jobOpportunityRepository.findAll().stream()
-                .filter(job -> matchesQuery(query, job.getTitle(), job.getDescription()))
-                .limit(MAX_RESULTS_PER_CATEGORY)
-                .map(job -> new SearchDTO.SearchResultItem(
-                        "job",
-                        job.getId(),
-                        job.getTitle(),
-                        truncate(job.getDescription(), 150),
-                        "/careers/" + job.getId(),
-                        null,
-                        job.getLocation()))
-                .collect(Collectors.toList());
+    public SearchDTO.SearchResponse search(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return new SearchDTO.SearchResponse(query, new HashMap<>(), 0);
+        }
+        return resultCache.get(query, () -> searchCategories(query));
     }
 
-    private List<SearchDTO.SearchResultItem> searchMedia(String query) {
-        return mediaItemRepository.findAll().stream()
-                .filter(media -> matchesQuery(query, media.getTitle(), media.getDescription(), media.getCategory()))
-                .limit(MAX_RESULTS_PER_CATEGORY)
-                .map(media -> new SearchDTO.SearchResultItem(
-                        "media",
-                        media.getId(),
-                        media.getTitle(),
-                        truncate(media.getDescription(), 150),
-                        "/media/" + media.getId(),
-                        media.getImageUrl() != null ? media.getImageUrl() : media.getVideoUrl(),
-                        media.getCategory()))
-                .collect(Collectors.toList());
-    }
+    private SearchDTO.SearchResponse searchCategories(String query) {
+        Map<String, Future<SearchBackend.Matches>> pending = new LinkedHashMap<>();
+        for (String category : CATEGORIES) {
+            pending.put(category,
+                    executor.submit(() -> searchBackend.search(category, query, MAX_RESULTS_PER_CATEGORY)));
+        }
 
-    private List<SearchDTO.SearchResultItem> searchEvents(String query) {
-        return eventRepository.findAll().stream()
-                .filter(event -> matchesQuery(query, event.getTitle(), event.getDescription(), event.getLocation()))
-                .limit(MAX_RESULTS_PER_CATEGORY)
-                .map(event -> new SearchDTO.SearchResultItem(
-                        "event",
-                        event.getId(),
-                        event.getTitle(),
-                        truncate(event.getDescription(), 150),
-                        "/events/" + event.getId(),
-                        event.getImageUrl(),
-                        event.getLocation()))
-                .collect(Collectors.toList());
-    }
+        // All categories start together, so one deadline is each category's budget
+        long deadline = System.nanoTime() + categoryTimeout.toNanos();
+        Map<String, List<SearchDTO.SearchResultItem>> categorizedResults = new LinkedHashMap<>();
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        facets.put(CATEGORY_FACET, new LinkedHashMap<>());
+        int totalResults = 0;
+        boolean partial = false;
+        for (Map.Entry<String, Future<SearchBackend.Matches>> entry : pending.entrySet()) {
+            SearchBackend.Matches matches;
+            try {
+                matches = entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Not interrupted: interrupting a virtual thread in socket I/O would close its
+                // pooled database connection. The query finishes and its result is dropped.
+                entry.getValue().cancel(false);
+                log.warn("Search in {} missed its {} deadline", entry.getKey(), categoryTimeout);
+                partial = true;
+                continue;
+            } catch (ExecutionException e) {
+                log.error("Search in {} failed: {}", entry.getKey(), e.getCause().getMessage());
+                partial = true;
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                partial = true;
+                break;
+            }
 
-    private List<SearchDTO.SearchResultItem> searchTestimonials(String query) {
-        return testimonialRepository.findAll().stream()
-                .filter(testimonial -> matchesQuery(query, testimonial.getName(), testimonial.getPosition(),
-                        testimonial.getQuote()))
-                .limit(MAX_RESULTS_PER_CATEGORY)
-                .map(testimonial -> new SearchDTO.SearchResultItem(
-                        "testimonial",
-                        String.valueOf(testimonial.getId()),
-                        testimonial.getName(),
-                        truncate(testimonial.getQuote(), 150),
-                        "/testimonials",
-                        null,
-                        testimonial.getPosition()))
-                .collect(Collectors.toList());
-    }
+            if (!matches.items().isEmpty()) {
+                categorizedResults.put(entry.getKey(), matches.items());
+                totalResults += matches.items().size();
+            }
+            if (matches.total() > 0) {
+                facets.get(CATEGORY_FACET).put(entry.getKey(), matches.total());
+            }
+            // Facets shared by categories (company) add up
+            matches.facets().forEach((facet, counts) -> counts.forEach((value, count) -> facets
+                    .computeIfAbsent(facet, f -> new HashMap<>()).merge(value, count, Integer::sum)));
+        }
 
-    private List<SearchDTO.SearchResultItem> searchPartners(String query) {
-        return partnerRepository.findAll().stream()
-                .filter(partner -> matchesQuery(query, partner.getName()))
-                .limit(MAX_RESULTS_PER_CATEGORY)
-                .map(partner -> new SearchDTO.SearchResultItem(
-                        "partner",
-                        partner.getId(),
-                        partner.getName(),
-                        "",
-                        "/partners",
-                        partner.getLogoUrl(),
-                        null))
-                .collect(Collectors.toList());
+        return new SearchDTO.SearchResponse(query, categorizedResults, totalResults, partial, facets);
     }
 
-    private List<SearchDTO.SearchResultItem> searchLeadership(String query) {
-        return corporateLeaderRepository.findAll().stream()
-                .filter(leader -> matchesQuery(query, leader.getName(), leader.getPosition(), leader.getBio()))
-                .limit(MAX_RESULTS_PER_CATEGORY)
-                .map(leader -> new SearchDTO.SearchResultItem(
-                        "leadership",
-                        leader.getId(),
-                        leader.getName(),
-                        leader.getPosition() + (leader.getBio() != null ? " - " + truncate(leader.getBio(), 100) : ""),
-                        "/leadership/" + leader.getId(),
-                        leader.getImage(),
-                        leader.getPosition()))
-                .collect(Collectors.toList());
-    }
+    /**
+     * One page of a single category, for "see more" and infinite scroll
+     *
+     * @param filters facet values to filter on, e.g. location=Colombo; names
+     *            that are not facets of the category are ignored
+     * @param cursor nextCursor of the previous page, or null for the first
+     * @throws IllegalArgumentException for an unknown category or a malformed cursor
+     */
+    public SearchDTO.CategoryPage searchCategory(String category, String query, Map<String, String> filters,
+            String cursor, int limit) {
+        if (!CATEGORIES.contains(category)) {
+            throw new IllegalArgumentException("Unknown search category: " + category);
+        }
+        SearchCursor after = cursor == null || cursor.isBlank() ? null : SearchCursor.decode(cursor);
 
-    private boolean matchesQuery(String query, String... fields) {
-        for (String field : fields) {
-            if (field != null && field.toLowerCase().contains(query)) {
-                return true;
+        Map<String, String> facetFilters = new HashMap<>();
+        Set<String> facetNames = SearchDocuments.FACET_COLUMNS.getOrDefault(category, Map.of()).keySet();
+        filters.forEach((name, value) -> {
+            if (facetNames.contains(name) && value != null && !value.isBlank()) {
+                facetFilters.put(name, value);
             }
-        }
-        return false;
+        });
+
+        SearchBackend.Page page = searchBackend.searchPage(category, query, facetFilters, after,
+                Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return new SearchDTO.CategoryPage(query, category, page.items(),
+                page.next() != null ? page.next().encode() : null, page.total(), page.totalExact(), page.facets());
     }
 
-    private String truncate(String text, int maxLength) {
-        if (text == null)
-            return "";
-        if (text.length() <= maxLength)
-            return text;
-        return text.substring(0, maxLength) + "...";
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
     }
 }
@@ -0,0 +1,167 @@
+package com.oceanlk.backend.service;
+
+import com.oceanlk.backend.dto.StoredFileMetadata;
+import com.oceanlk.backend.model.TalentPoolApplication;
+import com.oceanlk.backend.repository.TalentPoolApplicationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams talent-pool CVs as a ZIP with a CSV manifest. Applications are read
+ * once, a keyset page at a time, and each CV is copied straight from its blob
+ * store into the archive, so memory use does not depend on how many
+ * applications match. Manifest lines are spooled to a temporary file during
+ * that pass and appended last, so they describe exactly the CVs written.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TalentPoolExportService {
+
+    private static final int PAGE_SIZE = 100;
+    private static final DateTimeFormatter ENTRY_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final TalentPoolApplicationRepository applicationRepository;
+    private final FileStorageService fileStorageService;
+
+    /**
+     * Applications to export; null fields do not filter
+     */
+    public record Filter(String status, String position, LocalDateTime from, LocalDateTime to) {
+    }
+
+    public void writeExport(Filter filter, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        // CVs are mostly PDFs and DOCX files, which are already compressed
+        zip.setLevel(Deflater.BEST_SPEED);
+
+        Path manifest = Files.createTempFile("talent-pool-manifest-", ".csv");
+        try {
+            try (BufferedWriter lines = Files.newBufferedWriter(manifest, StandardCharsets.UTF_8)) {
+                lines.write("Application ID,Full Name,Email,Phone,Position,Experience,Status,Submitted,CV File\n");
+                forEachApplication(filter, application -> {
+                    StoredFileMetadata cv = findCv(application);
+                    String cvEntry = "";
+                    if (cv != null) {
+                        cvEntry = entryName(application);
+                        zip.putNextEntry(new ZipEntry(cvEntry));
+                        // Straight from the blob store, bypassing the hot-file cache
+                        fileStorageService.getBlobStore(cv.getStorageBackend())
+                                .copyTo(cv.getId(), 0, cv.getSize(), zip);
+                        zip.closeEntry();
+                    }
+                    lines.write(String.join(",",
+                            escape(application.getId()),
+                            escape(application.getFullName()),
+                            escape(application.getEmail()),
+                            escape(application.getPhone()),
+                            escape(application.getPosition()),
+                            escape(application.getExperience()),
+                            escape(application.getStatus()),
+                            escape(application.getSubmittedDate() != null
+                                    ? application.getSubmittedDate().toString() : null),
+                            escape(cvEntry)) + "\n");
+                });
+            }
+
+            zip.putNextEntry(new ZipEntry("manifest.csv"));
+            Files.copy(manifest, zip);
+            zip.closeEntry();
+        } finally {
+            Files.deleteIfExists(manifest);
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    private interface ApplicationWriter {
+        void write(TalentPoolApplication application) throws IOException;
+    }
+
+    private void forEachApplication(Filter filter, ApplicationWriter writer) throws IOException {
+        LocalDateTime afterDate = filter.from() != null ? filter.from() : LocalDateTime.of(1970, 1, 1, 0, 0);
+        String afterId = "";
+        // Fixed when the export starts, so applications submitted during it are left out
+        LocalDateTime to = filter.to() != null ? filter.to() : LocalDateTime.now();
+
+        List<TalentPoolApplication> page;
+        do {
+            page = applicationRepository.findSubmittedAfter(afterDate, afterId, to, PageRequest.ofSize(PAGE_SIZE));
+            for (TalentPoolApplication application : page) {
+                if (filter.status() != null && !filter.status().equalsIgnoreCase(application.getStatus())) {
+                    continue;
+                }
+                if (filter.position() != null && !filter.position().equalsIgnoreCase(application.getPosition())) {
+                    continue;
+                }
+                writer.write(application);
+            }
+            if (!page.isEmpty()) {
+                TalentPoolApplication last = page.get(page.size() - 1);
+                afterDate = last.getSubmittedDate();
+                afterId = last.getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+    }
+
+    private StoredFileMetadata findCv(TalentPoolApplication application) {
+        if (application.getCvFileId() == null) {
+            return null;
+        }
+        StoredFileMetadata metadata = fileStorageService.getFileMetadata(application.getCvFileId());
+        if (metadata == null) {
+            log.warn("CV {} of application {} is missing from storage", application.getCvFileId(),
+                    application.getId());
+        }
+        return metadata;
+    }
+
+    /**
+     * cvs/20240131_Jane_Doe_1a2b3c4d.pdf; the ID prefix keeps names unique
+     */
+    private String entryName(TalentPoolApplication application) {
+        String date = application.getSubmittedDate() != null ? application.getSubmittedDate().format(ENTRY_DATE)
+                : "undated";
+        String name = application.getFullName() != null
+                ? application.getFullName().replaceAll("[^A-Za-z0-9]+", "_")
+                : "applicant";
+        String filename = application.getCvFilename();
+        String extension = filename != null && filename.lastIndexOf('.') >= 0
+                ? filename.substring(filename.lastIndexOf('.')).replaceAll("[^A-Za-z0-9.]", "")
+                : "";
+        return "cvs/" + date + "_" + name + "_" + application.getId().substring(0, 8) + extension;
+    }
+
+    /**
+     * CSV field escaping. Values that a spreadsheet would read as a formula
+     * are prefixed with a quote.
+     */
+    private String escape(String data) {
+        if (data == null) {
+            return "";
+        }
+        String escaped = data.replaceAll("\\R", " ");
+        if (!escaped.isEmpty() && "=+-@".indexOf(escaped.charAt(0)) >= 0) {
+            escaped = "'" + escaped;
+        }
+        if (escaped.contains(",") || escaped.contains("\"") || escaped.contains("'")) {
+            escaped = "\"" + escaped.replace("\"", "\"\"") + "\"";
+        }
+        return escaped;
+    }
+}
@@ -0,0 +1,166 @@
+package com.oceanlk.backend.service.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link PublicContentCache} evictions between replicas through
+ * PostgreSQL LISTEN/NOTIFY, so they reach every replica even where Redis is
+ * not run.
+ *
+ * Each replica holds one connection of its own, outside the pool, that
+ * LISTENs on the channel and applies notifications as they arrive. When
+ * that connection drops it reconnects, and since any notifications sent
+ * meanwhile are lost, it then clears every cache.
+ *
+ * Notifications are sent from a thread of their own, so a transaction's
+ * after-commit work never waits on a second pooled connection while it still
+ * holds its first.
+ */
+@Component
+@Slf4j
+public class PostgresInvalidationBus {
+
+    private static final String CHANNEL = "oceanlk_cache_evictions";
+
+    // How long to wait for notifications before checking the connection is still alive
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(5);
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    private final ExecutorService publisher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-publisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PostgresInvalidationBus(DataSource dataSource,
+            @Value("${app.cache.public.notify.enabled:true}") boolean enabled,
+            @Value("${spring.datasource.url:}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password) {
+        this.dataSource = dataSource;
+        this.enabled = enabled && url.startsWith("jdbc:postgresql:");
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Starts listening: onNotification gets every payload published by any
+     * replica, this one included; onReconnect runs after the connection was
+     * lost and re-established.
+     */
+    public synchronized void subscribe(Consumer<String> onNotification, Runnable onReconnect) {
+        if (!enabled || listenerThread != null) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(() -> listen(onNotification, onReconnect), "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    /**
+     * Sends the payload to every replica, in the background. Callers send one
+     * per transaction; PostgreSQL limits a payload to 8000 bytes.
+     */
+    public void publish(String payload) {
+        if (!enabled) {
+            return;
+        }
+        publisher.execute(() -> send(payload));
+    }
+
+    private void send(String payload) {
+        // A connection of its own: this runs after commit, when the transaction's
+        // connection may still be bound but nothing sent on it would be committed
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, payload);
+            statement.execute();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            log.warn("Could not notify other replicas of cache evictions: {}", e.getMessage());
+        }
+    }
+
+    private void listen(Consumer<String> onNotification, Runnable onReconnect) {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnecting) {
+                    log.info("Cache invalidation listener reconnected; clearing public content caches");
+                    onReconnect.run();
+                    reconnecting = false;
+                }
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null || notifications.length == 0) {
+                        // A dropped connection does not always fail the wait
+                        if (!connection.isValid(5)) {
+                            throw new SQLException("Listener connection is no longer valid");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        onNotification.accept(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Cache invalidation listener disconnected ({}); retrying in {}s",
+                        e.getMessage(), RECONNECT_DELAY.toSeconds());
+                reconnecting = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        publisher.shutdown();
+    }
+}
@@ -0,0 +1,355 @@
+package com.oceanlk.backend.service.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanlk.backend.util.WeightedLruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Read-through caches for the public content endpoints (companies, partners,
+ * leadership, metrics, testimonials, leadership categories, page content),
+ * one bounded LRU per entity type. This content changes a few times a week
+ * but is read on every page view.
+ *
+ * Entries are evicted by PublicContentCacheListener when an entity of their
+ * type is saved or deleted, whether directly by a super admin or by a
+ * published PendingChange. The TTL only bounds staleness from changes made
+ * outside JPA.
+ *
+ * With Redis available ({@link PublicContentRedisStore}), a local miss is
+ * looked up in Redis before the database. Values are stored there as JSON,
+ * so each lookup names the type to read it back as. Evictions reach the
+ * other replicas through Redis pub/sub and through PostgreSQL NOTIFY
+ * ({@link PostgresInvalidationBus}), which works without Redis; a
+ * transaction's evictions travel together, as one message on each. Redis
+ * entries carry the version of their cache they were loaded under and are
+ * only used while it is still current.
+ *
+ * Per-cache hits, misses, evictions and sizes are published as the standard
+ * cache.gets, cache.evictions and cache.size meters, tagged with the cache
+ * name, e.g. /actuator/metrics/cache.gets?tag=cache:partners&tag=result:hit.
+ * Lookups that reach Redis are counted by cache.remote.gets.
+ */
+@Component
+@Slf4j
+public class PublicContentCache {
+
+    public static final String COMPANIES = "companies";
+    public static final String PARTNERS = "partners";
+    public static final String LEADERSHIP = "leadership";
+    public static final String METRICS = "metrics";
+    public static final String TESTIMONIALS = "testimonials";
+    public static final String LEADERSHIP_CATEGORIES = "leadership-categories";
+    public static final String PAGE_CONTENT = "page-content";
+
+    // Key of the cached full list in each cache
+    public static final String ALL = "all";
+
+    private static final List<String> CACHE_NAMES = List.of(
+            COMPANIES, PARTNERS, LEADERSHIP, METRICS, TESTIMONIALS, LEADERSHIP_CATEGORIES, PAGE_CONTENT);
+
+    // Separators of an eviction message: evictions go one per line, a key follows its cache name
+    private static final char EVICTION_SEPARATOR = '\n';
+    private static final char KEY_SEPARATOR = '\t';
+
+    // Under PostgreSQL's 8000 byte NOTIFY limit; longer messages evict whole caches instead
+    private static final int MAX_MESSAGE_BYTES = 7000;
+
+    /**
+     * One entry to evict, or a whole cache when key is null
+     */
+    public record Eviction(String cacheName, String key) {
+    }
+
+    private record CachedValue(Object value, long loadedAt) {
+    }
+
+    // Form of a value in Redis
+    private record StoredValue(long loadedAt, long version, Object value) {
+    }
+
+    /**
+     * One entity type's entries. The generation is bumped by every eviction,
+     * so a load that started before a write does not store its stale result.
+     */
+    private static final class NamedCache {
+        private final WeightedLruCache<String, CachedValue> entries;
+        private final Counter remoteHits;
+        private final Counter remoteMisses;
+        private long generation;
+
+        NamedCache(long maxEntries, Counter remoteHits, Counter remoteMisses) {
+            this.entries = new WeightedLruCache<>(maxEntries, value -> 1);
+            this.remoteHits = remoteHits;
+            this.remoteMisses = remoteMisses;
+        }
+    }
+
+    private final Map<String, NamedCache> caches = new HashMap<>();
+    private final PublicContentRedisStore redisStore;
+    private final PostgresInvalidationBus invalidationBus;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long ttlMillis;
+
+    public PublicContentCache(PublicContentRedisStore redisStore, PostgresInvalidationBus invalidationBus,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.public.enabled:true}") boolean enabled,
+            @Value("${app.cache.public.max-entries:256}") long maxEntries,
+            @Value("${app.cache.public.ttl:1h}") Duration ttl) {
+        this.redisStore = redisStore;
+        this.invalidationBus = invalidationBus;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ttlMillis = ttl.toMillis();
+
+        for (String name : CACHE_NAMES) {
+            NamedCache cache = new NamedCache(maxEntries,
+                    Counter.builder("cache.remote.gets").tag("cache", name).tag("result", "hit")
+                            .register(meterRegistry),
+                    Counter.builder("cache.remote.gets").tag("cache", name).tag("result", "miss")
+                            .register(meterRegistry));
+            caches.put(name, cache);
+            WeightedLruCache<String, CachedValue> entries = cache.entries;
+            FunctionCounter.builder("cache.gets", entries, WeightedLruCache::hitCount)
+                    .tag("cache", name).tag("result", "hit").register(meterRegistry);
+            FunctionCounter.builder("cache.gets", entries, WeightedLruCache::missCount)
+                    .tag("cache", name).tag("result", "miss").register(meterRegistry);
+            FunctionCounter.builder("cache.evictions", entries, WeightedLruCache::evictionCount)
+                    .tag("cache", name).register(meterRegistry);
+            Gauge.builder("cache.size", entries, WeightedLruCache::size)
+                    .tag("cache", name).register(meterRegistry);
+        }
+
+        redisStore.subscribe(this::onRemoteEviction);
+        invalidationBus.subscribe(this::onRemoteEviction, this::clearLocal);
+    }
+
+    /**
+     * Cached value for the key, loading and caching it on a miss. Values are
+     * shared between requests and must not be modified.
+     */
+    public <T> T get(String cacheName, String key, Class<T> type, Supplier<T> loader) {
+        return get(cacheName, key, objectMapper.constructType(type), loader);
+    }
+
+    /**
+     * As {@link #get}, for a list of elementType
+     */
+    public <E> List<E> getList(String cacheName, String key, Class<E> elementType, Supplier<List<E>> loader) {
+        return get(cacheName, key,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, elementType), loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String cacheName, String key, JavaType type, Supplier<T> loader) {
+        NamedCache cache = cache(cacheName);
+        if (!enabled) {
+            return loader.get();
+        }
+
+        CachedValue cached = cache.entries.get(key);
+        if (isFresh(cached)) {
+            return (T) cached.value();
+        }
+
+        long startGeneration;
+        synchronized (cache) {
+            startGeneration = cache.generation;
+        }
+
+        // Looked up before loading, so its version predates what the loader reads
+        PublicContentRedisStore.Lookup remote = redisStore.get(cacheName, key);
+        CachedValue stored = readRemote(cacheName, key, remote, type);
+        if (redisStore.isEnabled()) {
+            (isFresh(stored) ? cache.remoteHits : cache.remoteMisses).increment();
+        }
+        if (isFresh(stored)) {
+            synchronized (cache) {
+                if (cache.generation == startGeneration) {
+                    cache.entries.put(key, stored);
+                }
+            }
+            return (T) stored.value();
+        }
+
+        T value = loader.get();
+        if (value == null) {
+            return null;
+        }
+        CachedValue loaded = new CachedValue(value, System.currentTimeMillis());
+        boolean current;
+        synchronized (cache) {
+            current = cache.generation == startGeneration;
+            if (current) {
+                cache.entries.put(key, loaded);
+            }
+        }
+        if (current && remote != null) {
+            writeRemote(cacheName, key, loaded, remote.version());
+        }
+        return value;
+    }
+
+    public void evict(String cacheName, String key) {
+        evict(List.of(new Eviction(cacheName, key)));
+    }
+
+    public void evictAll(String cacheName) {
+        evict(List.of(new Eviction(cacheName, null)));
+    }
+
+    /**
+     * Evicts everything a transaction changed, here and, with one message per
+     * channel, on every other replica
+     */
+    public void evict(Collection<Eviction> evictions) {
+        if (evictions.isEmpty()) {
+            return;
+        }
+        for (Eviction eviction : evictions) {
+            evictLocal(cache(eviction.cacheName()), eviction.key());
+        }
+        String message = encode(evictions);
+        redisStore.evict(evictions, message);
+        invalidationBus.publish(message);
+    }
+
+    private void onRemoteEviction(String message) {
+        for (Eviction eviction : decode(message)) {
+            NamedCache cache = caches.get(eviction.cacheName());
+            if (cache != null) {
+                evictLocal(cache, eviction.key());
+            }
+        }
+    }
+
+    static String encode(Collection<Eviction> evictions) {
+        StringBuilder message = new StringBuilder();
+        for (Eviction eviction : evictions) {
+            if (!message.isEmpty()) {
+                message.append(EVICTION_SEPARATOR);
+            }
+            message.append(eviction.cacheName());
+            if (eviction.key() != null) {
+                message.append(KEY_SEPARATOR).append(eviction.key());
+            }
+        }
+        if (message.toString().getBytes(StandardCharsets.UTF_8).length <= MAX_MESSAGE_BYTES) {
+            return message.toString();
+        }
+
+        Set<String> cacheNames = new LinkedHashSet<>();
+        evictions.forEach(eviction -> cacheNames.add(eviction.cacheName()));
+        return String.join(String.valueOf(EVICTION_SEPARATOR), cacheNames);
+    }
+
+    static List<Eviction> decode(String message) {
+        List<Eviction> evictions = new ArrayList<>();
+        for (String line : message.split(String.valueOf(EVICTION_SEPARATOR))) {
+            int separator = line.indexOf(KEY_SEPARATOR);
+            evictions.add(separator < 0 ? new Eviction(line, null)
+                    : new Eviction(line.substring(0, separator), line.substring(separator + 1)));
+        }
+        return evictions;
+    }
+
+    /**
+     * Empties every cache on this replica, for when evictions may have been missed
+     */
+    private void clearLocal() {
+        caches.values().forEach(cache -> evictLocal(cache, null));
+    }
+
+    /**
+     * Drops the entry, or every entry when key is null, from this replica
+     */
+    private void evictLocal(NamedCache cache, String key) {
+        synchronized (cache) {
+            cache.generation++;
+            if (key == null) {
+                cache.entries.clear();
+            } else {
+                cache.entries.remove(key);
+            }
+        }
+    }
+
+    private boolean isFresh(CachedValue cached) {
+        return cached != null && System.currentTimeMillis() - cached.loadedAt() <= ttlMillis;
+    }
+
+    /**
+     * The value in Redis, or null when there is none or it was stored under
+     * an older version of the cache
+     */
+    private CachedValue readRemote(String cacheName, String key, PublicContentRedisStore.Lookup remote,
+            JavaType type) {
+        if (remote == null || remote.json() == null) {
+            return null;
+        }
+        try {
+            JsonNode stored = objectMapper.readTree(remote.json());
+            JsonNode version = stored.get("version");
+            if (version == null || version.asLong() != remote.version()) {
+                return null;
+            }
+            Object value = objectMapper.readerFor(type).readValue(stored.get("value"));
+            return new CachedValue(value, stored.get("loadedAt").asLong());
+        } catch (Exception e) {
+            // Written by a version with a different model; reload it
+            log.debug("Unreadable {} entry {} in Redis: {}", cacheName, key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRemote(String cacheName, String key, CachedValue cached, long version) {
+        try {
+            redisStore.put(cacheName, key,
+                    objectMapper.writeValueAsString(new StoredValue(cached.loadedAt(), version, cached.value())));
+        } catch (Exception e) {
+            log.warn("Could not serialize {} entry {} for Redis: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    /**
+     * Key of a page's sections in {@link #PAGE_CONTENT}
+     */
+    public static String pageKey(String page) {
+        return page == null ? null : page.toUpperCase();
+    }
+
+    /**
+     * Key of one section in {@link #PAGE_CONTENT}
+     */
+    public static String sectionKey(String page, String section) {
+        return page == null || section == null ? null : page.toUpperCase() + "/" + section.toUpperCase();
+    }
+
+    private NamedCache cache(String cacheName) {
+        NamedCache cache = caches.get(cacheName);
+        if (cache == null) {
+            throw new IllegalArgumentException("Unknown cache: " + cacheName);
+        }
+        return cache;
+    }
+}
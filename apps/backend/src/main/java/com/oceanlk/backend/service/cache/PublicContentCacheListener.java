@@ -0,0 +1,100 @@
+package com.oceanlk.backend.service.cache;
+
+import com.oceanlk.backend.model.*;
+import com.oceanlk.backend.service.cache.PublicContentCache.Eviction;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JPA listener on the entities behind {@link PublicContentCache}. Evicts the
+ * entries a save or delete can change once the transaction commits: the
+ * lists of the entity's type and, where an entity is also served on its
+ * own, its entry. A transaction's evictions are collected and sent to the
+ * other replicas together.
+ */
+public class PublicContentCacheListener {
+
+    // Resolved lazily: the listener is created while the EntityManagerFactory is still starting
+    private final ObjectProvider<PublicContentCache> cache;
+
+    public PublicContentCacheListener(ObjectProvider<PublicContentCache> cache) {
+        this.cache = cache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        // Keys are read now, while the entity is still attached
+        List<Eviction> evictions = evictions(entity);
+        if (evictions.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingEvictions().evictions.addAll(evictions);
+        } else {
+            cache.getObject().evict(evictions);
+        }
+    }
+
+    /**
+     * The current transaction's batch, registered with its first change.
+     * Synchronizations are suspended with their transaction, so a nested
+     * REQUIRES_NEW transaction gets a batch of its own.
+     */
+    private PendingEvictions pendingEvictions() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingEvictions pending && pending.listener == this) {
+                return pending;
+            }
+        }
+        PendingEvictions pending = new PendingEvictions(this);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private static final class PendingEvictions implements TransactionSynchronization {
+        private final PublicContentCacheListener listener;
+        private final Set<Eviction> evictions = new LinkedHashSet<>();
+
+        PendingEvictions(PublicContentCacheListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void afterCommit() {
+            listener.cache.getObject().evict(evictions);
+        }
+    }
+
+    private List<Eviction> evictions(Object entity) {
+        if (entity instanceof Company company) {
+            return List.of(new Eviction(PublicContentCache.COMPANIES, PublicContentCache.ALL),
+                    new Eviction(PublicContentCache.COMPANIES, company.getId()));
+        } else if (entity instanceof LeadershipCategory category) {
+            return List.of(new Eviction(PublicContentCache.LEADERSHIP_CATEGORIES, PublicContentCache.ALL),
+                    new Eviction(PublicContentCache.LEADERSHIP_CATEGORIES, category.getCode()));
+        } else if (entity instanceof PageContent content) {
+            String page = content.getPageIdentifier();
+            String section = content.getSectionIdentifier();
+            return List.of(new Eviction(PublicContentCache.PAGE_CONTENT, PublicContentCache.pageKey(page)),
+                    new Eviction(PublicContentCache.PAGE_CONTENT, PublicContentCache.sectionKey(page, section)));
+        }
+
+        // Only served as lists (all, or per department), any of which may hold the entity
+        String cacheName = entity instanceof Partner ? PublicContentCache.PARTNERS
+                : entity instanceof CorporateLeader ? PublicContentCache.LEADERSHIP
+                : entity instanceof GlobalMetric ? PublicContentCache.METRICS
+                : entity instanceof Testimonial ? PublicContentCache.TESTIMONIALS
+                : null;
+        return cacheName != null ? List.of(new Eviction(cacheName, null)) : List.of();
+    }
+}
@@ -0,0 +1,234 @@
+package com.oceanlk.backend.service.cache;
+
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Shared second level of {@link PublicContentCache} in Redis, so a replica
+ * that starts cold is filled from entries its peers already loaded, plus the
+ * pub/sub channel that carries evictions to every replica.
+ *
+ * Each cache is a Redis hash of JSON values keyed by the entry key, so a
+ * whole cache is dropped with one DEL. Expiry is checked by the caller
+ * against the stored load time; the hash itself expires a TTL after its last
+ * write.
+ *
+ * Every eviction also increments a version counter kept per cache. A reader
+ * gets the current version along with the entry and stores what it loads
+ * under that version, so a load that read the database before another
+ * replica's write, but reaches Redis after that write's eviction, is stored
+ * under an old version and ignored by every later reader.
+ *
+ * <p>
+ * Like RateLimitFilter, it falls back to doing nothing when Redis cannot be
+ * reached at startup, leaving the in-process caches on their own. A command
+ * that fails later skips Redis for {@link #RETRY_AFTER} instead of making
+ * every request wait for the timeout.
+ * </p>
+ */
+@Component
+@Slf4j
+public class PublicContentRedisStore {
+
+    private static final String KEY_PREFIX = "oceanlk:cache:";
+    private static final String EVICTION_CHANNEL = "oceanlk:cache:evictions";
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(30);
+
+    /**
+     * An entry as stored (null when there is none) and the version of its
+     * cache at the time of the lookup
+     */
+    public record Lookup(String json, long version) {
+    }
+
+    /** Non-null only when Redis is available. */
+    private final RedisClient redisClient;
+    private final StatefulRedisConnection<String, String> connection;
+    private final StatefulRedisPubSubConnection<String, String> pubSubConnection;
+
+    private final Duration ttl;
+    private volatile long unavailableUntil;
+
+    public PublicContentRedisStore(
+            @Value("${app.cache.public.redis.enabled:true}") boolean enabled,
+            @Value("${app.cache.public.ttl:1h}") Duration ttl,
+            @Value("${spring.data.redis.host:localhost}") String redisHost,
+            @Value("${spring.data.redis.port:6379}") int redisPort,
+            @Value("${spring.data.redis.password:}") String redisPassword,
+            @Value("${spring.data.redis.ssl.enabled:false}") boolean redisSsl) {
+        this.ttl = ttl;
+
+        RedisClient client = null;
+        StatefulRedisConnection<String, String> conn = null;
+        StatefulRedisPubSubConnection<String, String> pubSub = null;
+        if (enabled) {
+            try {
+                RedisURI.Builder uriBuilder = RedisURI.builder()
+                        .withHost(redisHost)
+                        .withPort(redisPort)
+                        .withSsl(redisSsl)
+                        .withTimeout(Duration.ofMillis(500));
+
+                if (redisPassword != null && !redisPassword.isBlank()) {
+                    uriBuilder.withPassword(redisPassword.toCharArray());
+                }
+
+                client = RedisClient.create(uriBuilder.build());
+                conn = client.connect();
+                pubSub = client.connectPubSub();
+                log.info("PublicContentRedisStore: sharing public content caches through Redis at {}:{}",
+                        redisHost, redisPort);
+            } catch (Exception e) {
+                log.warn("PublicContentRedisStore: Redis unavailable ({}). Public content caches are local " +
+                        "to each replica and evictions are not shared.", e.getMessage());
+                if (client != null) {
+                    client.shutdown();
+                }
+                client = null;
+                conn = null;
+                pubSub = null;
+            }
+        }
+
+        this.redisClient = client;
+        this.connection = conn;
+        this.pubSubConnection = pubSub;
+    }
+
+    public boolean isEnabled() {
+        return connection != null;
+    }
+
+    /**
+     * Calls the listener with every eviction message published by any
+     * replica, this one included. Lettuce resubscribes after a reconnect, but
+     * evictions sent while disconnected are lost and only the TTL clears what
+     * they covered.
+     */
+    public void subscribe(Consumer<String> listener) {
+        if (pubSubConnection == null) {
+            return;
+        }
+        pubSubConnection.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String channel, String message) {
+                listener.accept(message);
+            }
+        });
+        try {
+            pubSubConnection.sync().subscribe(EVICTION_CHANNEL);
+        } catch (Exception e) {
+            log.warn("PublicContentRedisStore: could not subscribe to evictions: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The stored JSON and current cache version, fetched in one round-trip;
+     * null when Redis is not reachable
+     */
+    public Lookup get(String cacheName, String key) {
+        if (!available()) {
+            return null;
+        }
+        try {
+            RedisAsyncCommands<String, String> commands = connection.async();
+            RedisFuture<String> version = commands.get(versionKey(cacheName));
+            RedisFuture<String> json = commands.hget(KEY_PREFIX + cacheName, key);
+            if (!LettuceFutures.awaitAll(connection.getTimeout(), version, json)) {
+                throw new IllegalStateException("Timed out after " + connection.getTimeout().toMillis() + "ms");
+            }
+            return new Lookup(json.get(), version.get() == null ? 0 : Long.parseLong(version.get()));
+        } catch (Exception e) {
+            markUnavailable("read", e);
+            return null;
+        }
+    }
+
+    public void put(String cacheName, String key, String json) {
+        if (!available()) {
+            return;
+        }
+        try {
+            // Stores are not waited for; a lost one only costs a later miss
+            String hash = KEY_PREFIX + cacheName;
+            connection.async().hset(hash, key, json);
+            connection.async().expire(hash, ttl.toSeconds());
+        } catch (Exception e) {
+            markUnavailable("write", e);
+        }
+    }
+
+    /**
+     * Moves each affected cache to a new version, drops the evicted entries
+     * (or whole caches) from Redis and publishes the message that tells every
+     * replica to drop them from its local cache. All commands go out in one
+     * pipelined round-trip.
+     */
+    public void evict(Collection<PublicContentCache.Eviction> evictions, String message) {
+        // Tried even while reads are skipped: a lost eviction leaves other replicas stale until the TTL
+        if (connection == null || evictions.isEmpty()) {
+            return;
+        }
+        try {
+            RedisAsyncCommands<String, String> commands = connection.async();
+            List<RedisFuture<?>> replies = new ArrayList<>();
+            Set<String> cacheNames = new LinkedHashSet<>();
+            for (PublicContentCache.Eviction eviction : evictions) {
+                cacheNames.add(eviction.cacheName());
+            }
+            for (String cacheName : cacheNames) {
+                replies.add(commands.incr(versionKey(cacheName)));
+            }
+            for (PublicContentCache.Eviction eviction : evictions) {
+                String hash = KEY_PREFIX + eviction.cacheName();
+                replies.add(eviction.key() == null ? commands.del(hash) : commands.hdel(hash, eviction.key()));
+            }
+            replies.add(commands.publish(EVICTION_CHANNEL, message));
+            if (!LettuceFutures.awaitAll(connection.getTimeout(), replies.toArray(new RedisFuture<?>[0]))) {
+                throw new IllegalStateException("Timed out after " + connection.getTimeout().toMillis() + "ms");
+            }
+        } catch (Exception e) {
+            markUnavailable("eviction", e);
+        }
+    }
+
+    // Never expires: a counter that restarted could match entries stored before it did
+    private static String versionKey(String cacheName) {
+        return KEY_PREFIX + cacheName + ":version";
+    }
+
+    private boolean available() {
+        return connection != null && System.currentTimeMillis() >= unavailableUntil;
+    }
+
+    private void markUnavailable(String operation, Exception e) {
+        unavailableUntil = System.currentTimeMillis() + RETRY_AFTER.toMillis();
+        log.warn("PublicContentRedisStore: {} failed ({}); using local caches only for {}s",
+                operation, e.getMessage(), RETRY_AFTER.toSeconds());
+    }
+
+    @PreDestroy
+    public void close() {
+        if (redisClient != null) {
+            redisClient.shutdown();
+        }
+    }
+}
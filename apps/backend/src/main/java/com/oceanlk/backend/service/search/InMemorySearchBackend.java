@@ -0,0 +1,124 @@
+package com.oceanlk.backend.service.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers searches from an in-process {@link SearchIndex}. The index is
+ * built at startup, kept current by SearchIndexListener as entities are
+ * saved and deleted, and rebuilt periodically to pick up changes made
+ * outside JPA (e.g. native UPDATEs). Each replica holds its own copy and
+ * only sees other replicas' edits at the next rebuild.
+ */
+@Component
+@Slf4j
+public class InMemorySearchBackend implements SearchBackend {
+
+    public static final String BACKEND = "MEMORY";
+
+    private final SearchDocumentLoader documentLoader;
+
+    // Nothing is loaded or tracked unless this backend is the active one
+    private final boolean active;
+
+    private final SearchIndex index = new SearchIndex();
+
+    private volatile boolean indexBuilt;
+
+    public InMemorySearchBackend(SearchDocumentLoader documentLoader,
+            @Value("${app.search.backend:MEMORY}") String activeBackend) {
+        this.documentLoader = documentLoader;
+        this.active = BACKEND.equalsIgnoreCase(activeBackend);
+    }
+
+    @Override
+    public String getBackend() {
+        return BACKEND;
+    }
+
+    @Override
+    public Matches search(String category, String query, int limit) {
+        ensureBuilt();
+        SearchIndex.Page page = index.search(query, category, Map.of(), null, limit);
+        return new Matches(page.hits().stream().map(SearchIndex.Hit::item).toList(), page.total(), page.facets());
+    }
+
+    /**
+     * Matches are scored again for every page, but only the page after the
+     * cursor is kept and ordered. The total and facet counts are exact.
+     */
+    @Override
+    public Page searchPage(String category, String query, Map<String, String> filters, SearchCursor after,
+            int limit) {
+        ensureBuilt();
+        // One extra result tells whether there is a next page
+        SearchIndex.Page page = index.search(query, category, filters, after, limit + 1);
+        List<SearchIndex.Hit> hits = page.hits();
+        SearchCursor next = null;
+        if (hits.size() > limit) {
+            hits = hits.subList(0, limit);
+            SearchIndex.Hit last = hits.get(limit - 1);
+            next = new SearchCursor(last.score(), last.id());
+        }
+        return new Page(hits.stream().map(SearchIndex.Hit::item).toList(), next, page.total(), true,
+                page.facets());
+    }
+
+    private void ensureBuilt() {
+        if (!indexBuilt) {
+            // Categories are searched concurrently; only the first caller builds
+            synchronized (this) {
+                if (!indexBuilt) {
+                    rebuildIndex();
+                }
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (active) {
+            rebuildIndex();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.index.rebuild-interval-ms:1800000}",
+            initialDelayString = "${app.search.index.rebuild-interval-ms:1800000}")
+    public void scheduledRebuild() {
+        if (active) {
+            rebuildIndex();
+        }
+    }
+
+    public synchronized void rebuildIndex() {
+        index.beginRebuild();
+        index.finishRebuild(documentLoader.loadAll());
+        indexBuilt = true;
+        log.debug("Search index rebuilt with {} documents", index.size());
+    }
+
+    /**
+     * Apply a committed save
+     */
+    public void put(SearchIndex.Document document) {
+        if (active) {
+            index.put(document);
+        }
+    }
+
+    /**
+     * Apply a committed delete
+     */
+    public void remove(SearchIndex.DocKey key) {
+        if (active) {
+            index.remove(key);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.oceanlk.backend.service.search;
+
+import com.oceanlk.backend.dto.SearchDTO;
+import com.oceanlk.backend.repository.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Searches with PostgreSQL full-text search: a ts_rank-ordered query per
+ * category against the generated, GIN-indexed search_vector columns. Nothing
+ * is held in memory, so every replica sees the same results as soon as an
+ * edit commits. Requires the search_vector columns from
+ * docs/DATABASE_MIGRATIONS.md.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostgresSearchBackend implements SearchBackend {
+
+    public static final String BACKEND = "POSTGRES";
+
+    // Totals and facets count at most this many matches; beyond it they are lower bounds
+    private static final int COUNT_LIMIT = 1000;
+
+    private static final Map<String, String> TABLES = Map.of(
+            "companies", "companies",
+            "jobs", "job_opportunities",
+            "media", "media_items",
+            "events", "events",
+            "testimonials", "testimonials",
+            "partners", "partners",
+            "leadership", "corporate_leaders");
+
+    private record RankedId(String id, float rank) {
+    }
+
+    private record FacetCounts(int total, boolean exact, Map<String, Map<String, Integer>> facets) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final CompanyRepository companyRepository;
+    private final JobOpportunityRepository jobOpportunityRepository;
+    private final MediaItemRepository mediaItemRepository;
+    private final EventRepository eventRepository;
+    private final TestimonialRepository testimonialRepository;
+    private final PartnerRepository partnerRepository;
+    private final CorporateLeaderRepository corporateLeaderRepository;
+
+    @Override
+    public String getBackend() {
+        return BACKEND;
+    }
+
+    @Override
+    public Matches search(String category, String query, int limit) {
+        String tsQuery = toTsQuery(query);
+        String table = TABLES.get(category);
+        if (tsQuery == null || table == null) {
+            return new Matches(List.of(), 0, Map.of());
+        }
+
+        List<?> entities = switch (category) {
+            case "companies" -> companyRepository.searchFullText(tsQuery, limit);
+            case "jobs" -> jobOpportunityRepository.searchFullText(tsQuery, limit);
+            case "media" -> mediaItemRepository.searchFullText(tsQuery, limit);
+            case "events" -> eventRepository.searchFullText(tsQuery, limit);
+            case "testimonials" -> testimonialRepository.searchFullText(tsQuery, limit);
+            case "partners" -> partnerRepository.searchFullText(tsQuery, limit);
+            case "leadership" -> corporateLeaderRepository.searchFullText(tsQuery, limit);
+            default -> List.of();
+        };
+        List<SearchDTO.SearchResultItem> items = entities.stream()
+                .map(SearchDocuments::toDocument)
+                .filter(Objects::nonNull)
+                .map(SearchIndex.Document::item)
+                .toList();
+        FacetCounts counts = countFacets(category, table, tsQuery, Map.of());
+        return new Matches(items, counts.total(), counts.facets());
+    }
+
+    /**
+     * Keyset page over the same ranking: only rows ranked after the cursor
+     * are read, using (rank, id) of the last row instead of an OFFSET. Ids
+     * compare in byte order (COLLATE "C"), as in {@link SearchCursor}. The
+     * total and facets are counted on the first page only.
+     */
+    @Override
+    public Page searchPage(String category, String query, Map<String, String> filters, SearchCursor after,
+            int limit) {
+        String tsQuery = toTsQuery(query);
+        String table = TABLES.get(category);
+        if (tsQuery == null || table == null) {
+            return new Page(List.of(), null, 0, true, Map.of());
+        }
+        List<Map.Entry<String, String>> columns = facetColumns(category);
+
+        StringBuilder sql = new StringBuilder("SELECT id::text AS search_id, ts_rank(search_vector, q) AS search_rank ")
+                .append("FROM ").append(table).append(", to_tsquery('simple', ?) q WHERE search_vector @@ q");
+        List<Object> args = new ArrayList<>();
+        args.add(tsQuery);
+        sql.append(" AND ").append(filterCondition(columns, filters, null, args));
+        if (after != null) {
+            sql.append(" AND (ts_rank(search_vector, q) < CAST(? AS real)")
+                    .append(" OR (ts_rank(search_vector, q) = CAST(? AS real) AND id::text COLLATE \"C\" > ?))");
+            float rank = (float) after.score();
+            args.add(rank);
+            args.add(rank);
+            args.add(after.id());
+        }
+        // One extra row tells whether there is a next page
+        sql.append(" ORDER BY ts_rank(search_vector, q) DESC, id::text COLLATE \"C\" LIMIT ?");
+        args.add(limit + 1);
+
+        List<RankedId> ranked = jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> new RankedId(rs.getString("search_id"), rs.getFloat("search_rank")),
+                args.toArray());
+        SearchCursor next = null;
+        if (ranked.size() > limit) {
+            ranked = ranked.subList(0, limit);
+            RankedId last = ranked.get(limit - 1);
+            next = new SearchCursor(last.rank(), last.id());
+        }
+
+        List<SearchDTO.SearchResultItem> items = load(category, ranked.stream().map(RankedId::id).toList());
+        if (after != null) {
+            return new Page(items, next, null, false, null);
+        }
+        FacetCounts counts = countFacets(category, table, tsQuery, filters);
+        return new Page(items, next, counts.total(), counts.exact(), counts.facets());
+    }
+
+    /**
+     * Match count and facet value counts in one grouped query: a grouping
+     * set per facet plus one for the total. FILTER clauses count each facet
+     * with only the other facets' filters applied. At most
+     * {@link #COUNT_LIMIT} + 1 matches are read.
+     */
+    private FacetCounts countFacets(String category, String table, String tsQuery, Map<String, String> filters) {
+        List<Map.Entry<String, String>> columns = facetColumns(category);
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT count(*) AS scanned, count(*) FILTER (WHERE ")
+                .append(filterCondition(columns, filters, null, args)).append(") AS matches");
+        StringBuilder groupingSets = new StringBuilder("()");
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i).getValue();
+            sql.append(", ").append(column).append(" AS facet_value").append(i)
+                    .append(", GROUPING(").append(column).append(") AS facet_grouping").append(i)
+                    .append(", count(*) FILTER (WHERE ")
+                    .append(filterCondition(columns, filters, columns.get(i).getKey(), args))
+                    .append(") AS facet_count").append(i);
+            groupingSets.append(", (").append(column).append(")");
+        }
+        sql.append(" FROM (SELECT * FROM ").append(table)
+                .append(" WHERE search_vector @@ to_tsquery('simple', ?) LIMIT ?) matches")
+                .append(" GROUP BY GROUPING SETS (").append(groupingSets).append(")");
+        args.add(tsQuery);
+        args.add(COUNT_LIMIT + 1);
+
+        Map<String, Map<String, Integer>> facets = new HashMap<>();
+        int[] total = new int[1];
+        boolean[] exact = { true };
+        jdbcTemplate.query(sql.toString(), rs -> {
+            for (int i = 0; i < columns.size(); i++) {
+                if (rs.getInt("facet_grouping" + i) == 0) {
+                    String value = rs.getString("facet_value" + i);
+                    int count = rs.getInt("facet_count" + i);
+                    if (value != null && !value.isBlank() && count > 0) {
+                        facets.computeIfAbsent(columns.get(i).getKey(), f -> new HashMap<>()).put(value, count);
+                    }
+                    return;
+                }
+            }
+            // The () grouping set: every facet column rolled up
+            total[0] = rs.getInt("matches");
+            exact[0] = rs.getInt("scanned") <= COUNT_LIMIT;
+        }, args.toArray());
+        return new FacetCounts(total[0], exact[0], facets);
+    }
+
+    /**
+     * Facet names and their columns, in a fixed order for building SQL
+     */
+    private static List<Map.Entry<String, String>> facetColumns(String category) {
+        return new ArrayList<>(SearchDocuments.FACET_COLUMNS.getOrDefault(category, Map.of()).entrySet());
+    }
+
+    /**
+     * "column = ?" for each filter on one of the columns except {@code except},
+     * adding the values to args. Filters on other names are ignored, so only
+     * known column names reach the SQL.
+     */
+    private static String filterCondition(List<Map.Entry<String, String>> columns, Map<String, String> filters,
+            String except, List<Object> args) {
+        List<String> conditions = new ArrayList<>();
+        for (Map.Entry<String, String> column : columns) {
+            String value = filters.get(column.getKey());
+            if (value != null && !column.getKey().equals(except)) {
+                conditions.add(column.getValue() + " = ?");
+                args.add(value);
+            }
+        }
+        return conditions.isEmpty() ? "TRUE" : String.join(" AND ", conditions);
+    }
+
+    /**
+     * Result items for the given ids, in their order
+     */
+    private List<SearchDTO.SearchResultItem> load(String category, List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<?> entities = switch (category) {
+            case "companies" -> companyRepository.findAllById(ids);
+            case "jobs" -> jobOpportunityRepository.findAllById(ids);
+            case "media" -> mediaItemRepository.findAllById(ids);
+            case "events" -> eventRepository.findAllById(ids);
+            case "testimonials" -> testimonialRepository.findAllById(ids.stream().map(Integer::valueOf).toList());
+            case "partners" -> partnerRepository.findAllById(ids);
+            case "leadership" -> corporateLeaderRepository.findAllById(ids);
+            default -> List.of();
+        };
+        Map<String, SearchDTO.SearchResultItem> items = new HashMap<>();
+        for (Object entity : entities) {
+            SearchIndex.Document document = SearchDocuments.toDocument(entity);
+            if (document != null) {
+                items.put(document.key().id(), document.item());
+            }
+        }
+        // A row deleted between the two queries is left out
+        return ids.stream().map(items::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Every term as a prefix, all required: "ocean hold" becomes
+     * "ocean:* & hold:*". Terms are letters and digits only, so no tsquery
+     * syntax can get through.
+     */
+    static String toTsQuery(String query) {
+        Set<String> terms = new LinkedHashSet<>(SearchIndex.splitTerms(query));
+        if (terms.isEmpty()) {
+            return null;
+        }
+        return String.join(" & ", terms.stream().map(term -> term + ":*").toList());
+    }
+}
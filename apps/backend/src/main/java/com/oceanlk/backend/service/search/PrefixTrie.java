@@ -0,0 +1,223 @@
+package com.oceanlk.backend.service.search;
+
+import com.oceanlk.backend.dto.SearchDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable character trie for title completion. Each title is inserted
+ * from the start of each of its words, so "hold" completes "Ocean Holdings"
+ * as well as titles starting with it. Every node keeps its best
+ * {@link #MAX_RESULTS} completions, precomputed at build time, so a lookup
+ * is a walk down the prefix and returns a stored list: no search below the
+ * node and, for ASCII input, no allocation beyond a subList view.
+ *
+ * Changes are made by building a new trie; readers never lock.
+ */
+public final class PrefixTrie {
+
+    public static final int MAX_RESULTS = 10;
+
+    // Longest prefix worth indexing; longer input is answered from this depth
+    private static final int MAX_DEPTH = 24;
+
+    // Words of a title that completions can start from
+    private static final int MAX_WORDS = 8;
+
+    private static final char[] NO_LABELS = new char[0];
+
+    private static final PrefixTrie EMPTY = new PrefixTrie(new Node(NO_LABELS, null, List.of()));
+
+    private final Node root;
+
+    private PrefixTrie(Node root) {
+        this.root = root;
+    }
+
+    public static PrefixTrie empty() {
+        return EMPTY;
+    }
+
+    public static PrefixTrie build(Collection<SearchDTO.Suggestion> suggestions) {
+        BuildNode root = new BuildNode();
+        StringBuilder key = new StringBuilder();
+        for (SearchDTO.Suggestion suggestion : suggestions) {
+            String text = suggestion.getText();
+            if (text == null) {
+                continue;
+            }
+            fold(text, key);
+            int length = Math.min(text.length(), 1023);
+
+            int word = 0;
+            for (int start = 0; start < key.length() && word < MAX_WORDS; start++) {
+                if (start > 0 && key.charAt(start - 1) != ' ') {
+                    continue;
+                }
+                // Earlier words first, then shorter titles
+                int score = word * 1024 + length;
+                BuildNode node = root;
+                for (int i = start; i < key.length() && i - start < MAX_DEPTH; i++) {
+                    node = node.children.computeIfAbsent(key.charAt(i), c -> new BuildNode());
+                    node.offer(suggestion, score);
+                }
+                word++;
+            }
+        }
+        return new PrefixTrie(root.freeze());
+    }
+
+    /**
+     * Best completions of {@code prefix}, at most {@code limit}. The input is
+     * folded the same way as the titles (case, accents, punctuation).
+     */
+    public List<SearchDTO.Suggestion> complete(String prefix, int limit) {
+        Node node = root;
+        int depth = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < prefix.length() && depth < MAX_DEPTH; i++) {
+            char c = fold(prefix.charAt(i));
+            if (c == 0) {
+                // Runs of separators count as one space, and only between words
+                pendingSpace = depth > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                node = node.child(' ');
+                depth++;
+                pendingSpace = false;
+                if (node == null || depth >= MAX_DEPTH) {
+                    break;
+                }
+            }
+            node = node.child(c);
+            depth++;
+            if (node == null) {
+                break;
+            }
+        }
+        if (node == null || depth == 0) {
+            return List.of();
+        }
+        // "ocean " prefers multi-word titles, falling back to "Ocean" itself
+        if (pendingSpace && node.child(' ') != null) {
+            node = node.child(' ');
+        }
+
+        List<SearchDTO.Suggestion> top = node.top;
+        return limit >= top.size() ? top : top.subList(0, Math.max(limit, 0));
+    }
+
+    /**
+     * Lower-cased letter or digit without accents, or 0 for anything else.
+     * ASCII input takes the fast path and allocates nothing.
+     */
+    static char fold(char c) {
+        if (c < 128) {
+            if (c >= 'A' && c <= 'Z') {
+                return (char) (c + ('a' - 'A'));
+            }
+            return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') ? c : 0;
+        }
+        if (!Character.isLetterOrDigit(c)) {
+            return 0;
+        }
+        return Character.toLowerCase(Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0));
+    }
+
+    /**
+     * Folded text with separator runs collapsed to single spaces
+     */
+    private static void fold(String text, StringBuilder out) {
+        out.setLength(0);
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold(text.charAt(i));
+            if (c == 0) {
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            out.append(c);
+        }
+    }
+
+    private static final class Node {
+        private final char[] labels;
+        private final Node[] children;
+        private final List<SearchDTO.Suggestion> top;
+
+        Node(char[] labels, Node[] children, List<SearchDTO.Suggestion> top) {
+            this.labels = labels;
+            this.children = children;
+            this.top = top;
+        }
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+
+    private record Candidate(SearchDTO.Suggestion suggestion, int score) {
+    }
+
+    private static final class BuildNode {
+        private final Map<Character, BuildNode> children = new TreeMap<>();
+        private final List<Candidate> candidates = new ArrayList<>(MAX_RESULTS + 1);
+
+        /**
+         * Keep the best-scoring MAX_RESULTS suggestions, each at most once
+         */
+        void offer(SearchDTO.Suggestion suggestion, int score) {
+            for (int i = 0; i < candidates.size(); i++) {
+                if (candidates.get(i).suggestion() == suggestion) {
+                    if (candidates.get(i).score() <= score) {
+                        return;
+                    }
+                    candidates.remove(i);
+                    break;
+                }
+            }
+
+            int position = candidates.size();
+            while (position > 0 && isBetter(score, suggestion, candidates.get(position - 1))) {
+                position--;
+            }
+            if (position < MAX_RESULTS) {
+                candidates.add(position, new Candidate(suggestion, score));
+                if (candidates.size() > MAX_RESULTS) {
+                    candidates.remove(MAX_RESULTS);
+                }
+            }
+        }
+
+        private static boolean isBetter(int score, SearchDTO.Suggestion suggestion, Candidate other) {
+            if (score != other.score()) {
+                return score < other.score();
+            }
+            return suggestion.getText().compareToIgnoreCase(other.suggestion().getText()) < 0;
+        }
+
+        Node freeze() {
+            char[] labels = children.isEmpty() ? NO_LABELS : new char[children.size()];
+            Node[] frozen = children.isEmpty() ? null : new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, BuildNode> entry : children.entrySet()) {
+                labels[i] = entry.getKey();
+                frozen[i] = entry.getValue().freeze();
+                i++;
+            }
+            return new Node(labels, frozen, candidates.stream().map(Candidate::suggestion).toList());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.oceanlk.backend.service.search;
+
+import com.oceanlk.backend.dto.SearchDTO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query side of /api/search. The active backend is chosen with
+ * app.search.backend.
+ */
+public interface SearchBackend {
+
+    /**
+     * Value of app.search.backend that selects this backend
+     */
+    String getBackend();
+
+    /**
+     * Best matches in one category ("companies", "jobs", ...), at most
+     * {@code limit}, with the number of matches and their facet counts.
+     * Called concurrently for the different categories.
+     */
+    Matches search(String category, String query, int limit);
+
+    /**
+     * One page of a category's matches, ranked as {@link #search} ranks them
+     *
+     * @param filters facet values results must have, only facets of this category
+     * @param after cursor of the previous page's last result, or null for the first page
+     */
+    Page searchPage(String category, String query, Map<String, String> filters, SearchCursor after, int limit);
+
+    /**
+     * @param facets value counts by facet name (see SearchDocuments.FACET_COLUMNS)
+     */
+    record Matches(List<SearchDTO.SearchResultItem> items, int total, Map<String, Map<String, Integer>> facets) {
+    }
+
+    /**
+     * @param next cursor for the following page, or null if this is the last
+     * @param total number of matches passing the filters, or null when not counted for this page
+     * @param totalExact false if {@code total} and the facet counts are lower bounds
+     * @param facets value counts by facet name, each counted with the other facets' filters applied;
+     *            null when not counted for this page
+     */
+    record Page(List<SearchDTO.SearchResultItem> items, SearchCursor next, Integer total, boolean totalExact,
+            Map<String, Map<String, Integer>> facets) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.oceanlk.backend.service.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a ranked result list: the score and id of the last
+ * result returned. Results are ordered by score, highest first, then by id
+ * (compared as strings), so the next page is everything after this key and
+ * nothing before it has to be read again. Clients get it as an opaque
+ * base64url string.
+ */
+public record SearchCursor(double score, String id) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((score + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not made by {@link #encode}
+     */
+    public static SearchCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            if (separator <= 0 || separator == decoded.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new SearchCursor(Double.parseDouble(decoded.substring(0, separator)),
+                    decoded.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            // Also covers bad base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Whether a result with this score and id comes after the cursor
+     */
+    public boolean isBefore(double resultScore, String resultId) {
+        return resultScore < score || (resultScore == score && resultId.compareTo(id) > 0);
+    }
+}
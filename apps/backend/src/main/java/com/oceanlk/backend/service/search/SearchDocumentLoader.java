@@ -0,0 +1,37 @@
+package com.oceanlk.backend.service.search;
+
+import com.oceanlk.backend.repository.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads every searchable entity as an index document, for full rebuilds
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchDocumentLoader {
+
+    private final CompanyRepository companyRepository;
+    private final JobOpportunityRepository jobOpportunityRepository;
+    private final MediaItemRepository mediaItemRepository;
+    private final EventRepository eventRepository;
+    private final TestimonialRepository testimonialRepository;
+    private final PartnerRepository partnerRepository;
+    private final CorporateLeaderRepository corporateLeaderRepository;
+
+    public List<SearchIndex.Document> loadAll() {
+        List<SearchIndex.Document> documents = new ArrayList<>();
+        companyRepository.findAll().forEach(company -> documents.add(SearchDocuments.toDocument(company)));
+        jobOpportunityRepository.findAll().forEach(job -> documents.add(SearchDocuments.toDocument(job)));
+        mediaItemRepository.findAll().forEach(media -> documents.add(SearchDocuments.toDocument(media)));
+        eventRepository.findAll().forEach(event -> documents.add(SearchDocuments.toDocument(event)));
+        testimonialRepository.findAll()
+                .forEach(testimonial -> documents.add(SearchDocuments.toDocument(testimonial)));
+        partnerRepository.findAll().forEach(partner -> documents.add(SearchDocuments.toDocument(partner)));
+        corporateLeaderRepository.findAll().forEach(leader -> documents.add(SearchDocuments.toDocument(leader)));
+        return documents;
+    }
+}
@@ -0,0 +1,181 @@
+package com.oceanlk.backend.service.search;
+
+import com.oceanlk.backend.dto.SearchDTO;
+import com.oceanlk.backend.model.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Turns searchable entities into index documents: the result item shown to
+ * the user, its title, the other fields its text is matched against and
+ * its facet values. Shared by every
+ * {@link SearchBackend}.
+ */
+public final class SearchDocuments {
+
+    public static final String FACET_LOCATION = "location";
+    public static final String FACET_COMPANY = "company";
+    public static final String FACET_JOB_CATEGORY = "jobCategory";
+    public static final String FACET_MEDIA_CATEGORY = "mediaCategory";
+
+    /**
+     * Facets each search category has, and the column each is stored in
+     */
+    public static final Map<String, Map<String, String>> FACET_COLUMNS = Map.of(
+            "jobs", Map.of(FACET_LOCATION, "location", FACET_COMPANY, "company", FACET_JOB_CATEGORY, "category"),
+            "media", Map.of(FACET_MEDIA_CATEGORY, "category", FACET_COMPANY, "company"));
+
+    private SearchDocuments() {
+    }
+
+    /**
+     * @return null if the entity is not searchable
+     */
+    public static SearchIndex.Document toDocument(Object entity) {
+        if (entity instanceof Company company) {
+            return toDocument(company);
+        } else if (entity instanceof JobOpportunity job) {
+            return toDocument(job);
+        } else if (entity instanceof MediaItem media) {
+            return toDocument(media);
+        } else if (entity instanceof Event event) {
+            return toDocument(event);
+        } else if (entity instanceof Testimonial testimonial) {
+            return toDocument(testimonial);
+        } else if (entity instanceof Partner partner) {
+            return toDocument(partner);
+        } else if (entity instanceof CorporateLeader leader) {
+            return toDocument(leader);
+        }
+        return null;
+    }
+
+    private static SearchIndex.Document toDocument(Company company) {
+        return document("companies", company.getId(),
+                new SearchDTO.SearchResultItem(
+                        "company",
+                        company.getId(),
+                        company.getTitle(),
+                        truncate(company.getDescription(), 150),
+                        "/companies/" + company.getId(),
+                        company.getLogoUrl(),
+                        null),
+                Map.of(),
+                company.getTitle(), company.getDescription());
+    }
+
+    private static SearchIndex.Document toDocument(JobOpportunity job) {
+        return document("jobs", job.getId(),
+                new SearchDTO.SearchResultItem(
+                        "job",
+                        job.getId(),
+                        job.getTitle(),
+                        truncate(job.getDescription(), 150),
+                        "/careers/" + job.getId(),
+                        null,
+                        job.getLocation()),
+                facets(FACET_LOCATION, job.getLocation(), FACET_COMPANY, job.getCompany(),
+                        FACET_JOB_CATEGORY, job.getCategory()),
+                job.getTitle(), job.getDescription());
+    }
+
+    private static SearchIndex.Document toDocument(MediaItem media) {
+        return document("media", media.getId(),
+                new SearchDTO.SearchResultItem(
+                        "media",
+                        media.getId(),
+                        media.getTitle(),
+                        truncate(media.getDescription(), 150),
+                        "/media/" + media.getId(),
+                        media.getImageUrl() != null ? media.getImageUrl() : media.getVideoUrl(),
+                        media.getCategory()),
+                facets(FACET_MEDIA_CATEGORY, media.getCategory(), FACET_COMPANY, media.getCompany()),
+                media.getTitle(), media.getDescription(), media.getCategory());
+    }
+
+    private static SearchIndex.Document toDocument(Event event) {
+        return document("events", event.getId(),
+                new SearchDTO.SearchResultItem(
+                        "event",
+                        event.getId(),
+                        event.getTitle(),
+                        truncate(event.getDescription(), 150),
+                        "/events/" + event.getId(),
+                        event.getImageUrl(),
+                        event.getLocation()),
+                Map.of(),
+                event.getTitle(), event.getDescription(), event.getLocation());
+    }
+
+    private static SearchIndex.Document toDocument(Testimonial testimonial) {
+        return document("testimonials", String.valueOf(testimonial.getId()),
+                new SearchDTO.SearchResultItem(
+                        "testimonial",
+                        String.valueOf(testimonial.getId()),
+                        testimonial.getName(),
+                        truncate(testimonial.getQuote(), 150),
+                        "/testimonials",
+                        null,
+                        testimonial.getPosition()),
+                Map.of(),
+                testimonial.getName(), testimonial.getPosition(), testimonial.getQuote());
+    }
+
+    private static SearchIndex.Document toDocument(Partner partner) {
+        return document("partners", partner.getId(),
+                new SearchDTO.SearchResultItem(
+                        "partner",
+                        partner.getId(),
+                        partner.getName(),
+                        "",
+                        "/partners",
+                        partner.getLogoUrl(),
+                        null),
+                Map.of(),
+                partner.getName());
+    }
+
+    private static SearchIndex.Document toDocument(CorporateLeader leader) {
+        return document("leadership", leader.getId(),
+                new SearchDTO.SearchResultItem(
+                        "leadership",
+                        leader.getId(),
+                        leader.getName(),
+                        leader.getPosition() + (leader.getBio() != null ? " - " + truncate(leader.getBio(), 100) : ""),
+                        "/leadership/" + leader.getId(),
+                        leader.getImage(),
+                        leader.getPosition()),
+                Map.of(),
+                leader.getName(), leader.getPosition(), leader.getBio());
+    }
+
+    private static SearchIndex.Document document(String category, String id, SearchDTO.SearchResultItem item,
+            Map<String, String> facets, String title, String... body) {
+        return new SearchIndex.Document(new SearchIndex.DocKey(category, id), item, title, Arrays.asList(body),
+                facets);
+    }
+
+    /**
+     * Facet name and value pairs, leaving out blank values
+     */
+    private static Map<String, String> facets(String... namesAndValues) {
+        Map<String, String> facets = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            String value = namesAndValues[i + 1];
+            if (value != null && !value.isBlank()) {
+                facets.put(namesAndValues[i], value);
+            }
+        }
+        return facets;
+    }
+
+    private static String truncate(String text, int maxLength) {
+        if (text == null)
+            return "";
+        if (text.length() <= maxLength)
+            return text;
+        return text.substring(0, maxLength) + "...";
+    }
+}
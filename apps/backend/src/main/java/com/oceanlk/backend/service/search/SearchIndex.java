@@ -0,0 +1,481 @@
+package com.oceanlk.backend.service.search;
+
+import com.oceanlk.backend.dto.SearchDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index of the public content behind /api/search. Each
+ * document is stored with its prebuilt result item, so a query is answered
+ * without touching the database.
+ *
+ * Text is normalized once at indexing time (lower case, accents stripped,
+ * split on anything that is not a letter or digit). A document must match
+ * every query token, exactly, as a prefix (the user is still typing) or,
+ * for short queries, within one or two typos. Matches are ranked with
+ * BM25, counting a title occurrence as {@link #TITLE_WEIGHT} body
+ * occurrences and discounting prefix and fuzzy matches.
+ */
+public class SearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    // BM25 parameters: term frequency saturation and length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    static final float TITLE_WEIGHT = 3f;
+
+    // Score factors for a term that only starts with the token, or is a typo away from it
+    private static final double PREFIX_FACTOR = 0.7;
+    private static final double FUZZY_FACTOR = 0.4;
+
+    // Fuzzy matching only for queries of at most this many tokens, and tokens of at least this length
+    private static final int FUZZY_MAX_TOKENS = 3;
+    private static final int FUZZY_MIN_LENGTH = 4;
+
+    public record DocKey(String category, String id) {
+    }
+
+    /**
+     * A document to index: the result to return, its title, the other text
+     * to match, and its facet values by facet name
+     */
+    public record Document(DocKey key, SearchDTO.SearchResultItem item, String title, List<String> body,
+            Map<String, String> facets) {
+    }
+
+    private record Match(Map<DocKey, Float> postings, double factor) {
+    }
+
+    private record Entry(SearchDTO.SearchResultItem item, Set<String> terms, float length,
+            Map<String, String> facets) {
+    }
+
+    /**
+     * Postings hold the weighted term frequency of each document
+     */
+    private static final class Postings {
+        private final TreeMap<String, Map<DocKey, Float>> terms = new TreeMap<>();
+        private final Map<DocKey, Entry> documents = new HashMap<>();
+        private double totalLength;
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Postings index = new Postings();
+
+    // Changes made while a rebuild is loading, replayed onto the rebuilt index
+    private List<Document> journal;
+    private List<DocKey> removalJournal;
+
+    public void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                journal.add(document);
+                removalJournal.remove(document.key());
+            }
+            putLocked(index, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(DocKey key) {
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                removalJournal.add(key);
+                journal.removeIf(document -> document.key().equals(key));
+            }
+            removeLocked(index, key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Start recording changes, to be called before loading the documents for
+     * {@link #finishRebuild}
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+            removalJournal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the whole index. Changes recorded since {@link #beginRebuild}
+     * are applied on top, so an entity saved while the documents were being
+     * loaded is not lost.
+     */
+    public void finishRebuild(Collection<Document> loaded) {
+        Postings rebuilt = new Postings();
+        lock.writeLock().lock();
+        try {
+            for (Document document : loaded) {
+                putLocked(rebuilt, document);
+            }
+            if (journal != null) {
+                for (DocKey key : removalJournal) {
+                    removeLocked(rebuilt, key);
+                }
+                for (Document document : journal) {
+                    putLocked(rebuilt, document);
+                }
+            }
+            index = rebuilt;
+            journal = null;
+            removalJournal = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A result with the score it was ranked by
+     */
+    public record Hit(SearchDTO.SearchResultItem item, String id, double score) {
+    }
+
+    /**
+     * One page of a category's results, the number of matches passing the
+     * filters, and value counts per facet
+     */
+    public record Page(List<Hit> hits, int total, Map<String, Map<String, Integer>> facets) {
+    }
+
+    private static final Page EMPTY_PAGE = new Page(List.of(), 0, Map.of());
+
+    /**
+     * Best matching result items of one category, highest score first
+     */
+    public List<SearchDTO.SearchResultItem> search(String query, String category, int limit) {
+        return search(query, category, Map.of(), null, limit).hits().stream().map(Hit::item).toList();
+    }
+
+    /**
+     * Best matching results of one category whose facet values equal the
+     * filters, ranked after {@code after} (from the top if null), highest
+     * score first and then by id
+     */
+    public Page search(String query, String category, Map<String, String> filters, SearchCursor after, int limit) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(query));
+        if (tokens.isEmpty()) {
+            return EMPTY_PAGE;
+        }
+        boolean fuzzy = tokens.size() <= FUZZY_MAX_TOKENS;
+
+        lock.readLock().lock();
+        try {
+            int documentCount = index.documents.size();
+            double averageLength = documentCount > 0 ? index.totalLength / documentCount : 1;
+
+            Map<DocKey, Double> scores = null;
+            for (String token : tokens) {
+                List<Match> matches = new ArrayList<>();
+
+                // Exact and prefix matches: every term from the token up to the token followed by anything
+                for (Map.Entry<String, Map<DocKey, Float>> term : index.terms
+                        .subMap(token, true, token + Character.MAX_VALUE, true).entrySet()) {
+                    double factor = term.getKey().length() == token.length() ? 1 : PREFIX_FACTOR;
+                    matches.add(new Match(term.getValue(), factor));
+                }
+
+                if (fuzzy && token.length() >= FUZZY_MIN_LENGTH) {
+                    // Typos in the first letter are rare; only terms sharing it are compared
+                    char first = token.charAt(0);
+                    for (Map.Entry<String, Map<DocKey, Float>> term : index.terms
+                            .subMap(String.valueOf(first), true, first + String.valueOf(Character.MAX_VALUE), true)
+                            .entrySet()) {
+                        if (!term.getKey().startsWith(token) && isTypo(token, term.getKey())) {
+                            matches.add(new Match(term.getValue(), FUZZY_FACTOR));
+                        }
+                    }
+                }
+
+                Map<DocKey, Double> tokenScores = scoreToken(matches, category, documentCount, averageLength);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    Map<DocKey, Double> both = new HashMap<>();
+                    for (Map.Entry<DocKey, Double> score : scores.entrySet()) {
+                        Double tokenScore = tokenScores.get(score.getKey());
+                        if (tokenScore != null) {
+                            both.put(score.getKey(), score.getValue() + tokenScore);
+                        }
+                    }
+                    scores = both;
+                }
+                if (scores.isEmpty()) {
+                    return EMPTY_PAGE;
+                }
+            }
+
+            return rank(scores, filters, after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether a document with the given terms matches every token of a
+     * query, by the same rules as {@link #search}. Used to tell which cached
+     * results a changed document may belong to.
+     */
+    public static boolean matchesAll(Collection<String> tokens, Collection<String> terms) {
+        boolean fuzzy = tokens.size() <= FUZZY_MAX_TOKENS;
+        for (String token : tokens) {
+            boolean matched = false;
+            for (String term : terms) {
+                if (term.startsWith(token) || (fuzzy && token.length() >= FUZZY_MIN_LENGTH
+                        && term.charAt(0) == token.charAt(0) && isTypo(token, term))) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One edit for tokens of up to 7 characters, two from 8
+     */
+    private static boolean isTypo(String token, String term) {
+        int maxEdits = token.length() >= 8 ? 2 : 1;
+        return Math.abs(term.length() - token.length()) <= maxEdits
+                && editDistance(token, term, maxEdits) <= maxEdits;
+    }
+
+    /**
+     * Filter the matches, count their facet values and keep the page after
+     * {@code after}, all in one pass. Results are ordered highest score
+     * first, equal scores by id; only {@code limit} candidates are kept
+     * instead of sorting every match.
+     *
+     * Each facet is counted over the matches passing every other filter, so
+     * the values a filter excludes stay visible with their counts.
+     */
+    private Page rank(Map<DocKey, Double> scores, Map<String, String> filters, SearchCursor after, int limit) {
+        Comparator<Map.Entry<DocKey, Double>> ranking = Comparator
+                .<Map.Entry<DocKey, Double>>comparingDouble(Map.Entry::getValue).reversed()
+                .thenComparing(score -> score.getKey().id());
+        // Worst of the kept candidates at the head
+        PriorityQueue<Map.Entry<DocKey, Double>> best = new PriorityQueue<>(Math.max(1, limit + 1), ranking.reversed());
+        Map<String, Map<String, Integer>> facets = new HashMap<>();
+        int total = 0;
+
+        for (Map.Entry<DocKey, Double> score : scores.entrySet()) {
+            Map<String, String> values = index.documents.get(score.getKey()).facets();
+            String failedFilter = null;
+            int failures = 0;
+            for (Map.Entry<String, String> filter : filters.entrySet()) {
+                if (!filter.getValue().equals(values.get(filter.getKey()))) {
+                    failedFilter = filter.getKey();
+                    failures++;
+                }
+            }
+
+            if (failures == 0) {
+                values.forEach((facet, value) -> count(facets, facet, value));
+            } else if (failures == 1 && values.containsKey(failedFilter)) {
+                count(facets, failedFilter, values.get(failedFilter));
+            }
+            if (failures > 0) {
+                continue;
+            }
+
+            total++;
+            if (limit <= 0 || (after != null && !after.isBefore(score.getValue(), score.getKey().id()))) {
+                continue;
+            }
+            best.offer(score);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Map.Entry<DocKey, Double>> ranked = new ArrayList<>(best);
+        ranked.sort(ranking);
+        List<Hit> hits = new ArrayList<>(ranked.size());
+        for (Map.Entry<DocKey, Double> score : ranked) {
+            hits.add(new Hit(index.documents.get(score.getKey()).item(), score.getKey().id(), score.getValue()));
+        }
+        return new Page(hits, total, facets);
+    }
+
+    private static void count(Map<String, Map<String, Integer>> facets, String facet, String value) {
+        facets.computeIfAbsent(facet, f -> new HashMap<>()).merge(value, 1, Integer::sum);
+    }
+
+    /**
+     * BM25 score of one query token for each document of the category. The
+     * idf is that of the token, from every document it matches, so a rare
+     * completion ("oceanic" for "ocean") does not outrank the exact word. A
+     * document matching several terms of the token counts its best one.
+     */
+    private Map<DocKey, Double> scoreToken(List<Match> matches, String category, int documentCount,
+            double averageLength) {
+        Map<DocKey, Double> tokenScores = new HashMap<>();
+        if (matches.isEmpty()) {
+            return tokenScores;
+        }
+        int documentFrequency = matches.size() == 1 ? matches.get(0).postings().size() : countDocuments(matches);
+        double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+
+        for (Match match : matches) {
+            for (Map.Entry<DocKey, Float> posting : match.postings().entrySet()) {
+                DocKey key = posting.getKey();
+                if (!key.category().equals(category)) {
+                    continue;
+                }
+                double frequency = posting.getValue();
+                double length = index.documents.get(key).length();
+                double score = match.factor() * idf * frequency * (K1 + 1)
+                        / (frequency + K1 * (1 - B + B * length / averageLength));
+                tokenScores.merge(key, score, Math::max);
+            }
+        }
+        return tokenScores;
+    }
+
+    private static int countDocuments(List<Match> matches) {
+        Set<DocKey> documents = new HashSet<>();
+        for (Match match : matches) {
+            documents.addAll(match.postings().keySet());
+        }
+        return documents.size();
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent
+     * transpositions), giving up once it must exceed {@code max}
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, previous2[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return splitTerms(DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll(""));
+    }
+
+    /**
+     * Lower-cased letter/digit runs, accents kept
+     */
+    public static List<String> splitTerms(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void putLocked(Postings postings, Document document) {
+        removeLocked(postings, document.key());
+
+        Map<String, Float> frequencies = new HashMap<>();
+        for (String term : tokenize(document.title())) {
+            frequencies.merge(term, TITLE_WEIGHT, Float::sum);
+        }
+        for (String field : document.body()) {
+            for (String term : tokenize(field)) {
+                frequencies.merge(term, 1f, Float::sum);
+            }
+        }
+
+        float length = 0;
+        for (Map.Entry<String, Float> frequency : frequencies.entrySet()) {
+            postings.terms.computeIfAbsent(frequency.getKey(), t -> new HashMap<>())
+                    .put(document.key(), frequency.getValue());
+            length += frequency.getValue();
+        }
+        postings.totalLength += length;
+
+        postings.documents.put(document.key(), new Entry(document.item(), frequencies.keySet(), length,
+                document.facets()));
+    }
+
+    private void removeLocked(Postings postings, DocKey key) {
+        Entry entry = postings.documents.remove(key);
+        if (entry == null) {
+            return;
+        }
+        postings.totalLength -= entry.length();
+        for (String term : entry.terms()) {
+            Map<DocKey, Float> docs = postings.terms.get(term);
+            if (docs != null) {
+                docs.remove(key);
+                if (docs.isEmpty()) {
+                    postings.terms.remove(term);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.oceanlk.backend.service.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on the searchable entities. Every save and delete, whether
+ * from an admin controller or a change published through
+ * PendingChangeController, goes through here and updates the in-memory
+ * search index, title suggestions and cached search results once the
+ * transaction commits.
+ */
+public class SearchIndexListener {
+
+    // Resolved lazily: the listener is created while the EntityManagerFactory is still starting
+    private final ObjectProvider<InMemorySearchBackend> searchBackend;
+    private final ObjectProvider<TitleSuggester> titleSuggester;
+    private final ObjectProvider<SearchResultCache> resultCache;
+
+    public SearchIndexListener(ObjectProvider<InMemorySearchBackend> searchBackend,
+            ObjectProvider<TitleSuggester> titleSuggester, ObjectProvider<SearchResultCache> resultCache) {
+        this.searchBackend = searchBackend;
+        this.titleSuggester = titleSuggester;
+        this.resultCache = resultCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        // Built now, while the entity is still attached
+        SearchIndex.Document document = SearchDocuments.toDocument(entity);
+        if (document != null) {
+            afterCommit(() -> {
+                searchBackend.getObject().put(document);
+                titleSuggester.getObject().put(document);
+                // After the index, so a search cannot cache the old state again
+                resultCache.getObject().invalidate(document);
+            });
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        SearchIndex.Document document = SearchDocuments.toDocument(entity);
+        if (document != null) {
+            afterCommit(() -> {
+                searchBackend.getObject().remove(document.key());
+                titleSuggester.getObject().remove(document.key());
+                resultCache.getObject().invalidate(document);
+            });
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.oceanlk.backend.service.search;
+
+import com.oceanlk.backend.dto.SearchDTO;
+import com.oceanlk.backend.util.WeightedLruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of complete /api/search responses, keyed by the normalized query
+ * (its distinct tokens, sorted), so "Ocean  Holdings" and "holdings ocean"
+ * share an entry. Concurrent misses on one key are coalesced into a single
+ * search.
+ *
+ * Saving or deleting a searchable entity drops only the entries it can
+ * affect: those listing it, and those whose every token it matches. Entries
+ * are also dropped after the TTL, which bounds how stale other replicas and
+ * score changes elsewhere in the index can make them. Partial responses are
+ * not cached.
+ */
+@Component
+public class SearchResultCache {
+
+    private record CachedResponse(List<String> tokens, Set<SearchIndex.DocKey> documents,
+            SearchDTO.SearchResponse response, long loadedAt) {
+    }
+
+    private final WeightedLruCache<String, CachedResponse> cache;
+    private final Map<String, CompletableFuture<SearchDTO.SearchResponse>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long ttlMillis;
+
+    // Bumped by every invalidation; a search that started before it does not store its result
+    private long generation;
+
+    private final Timer hitTimer;
+    private final Timer missTimer;
+    private final Timer coalescedTimer;
+    private final Counter invalidations;
+
+    public SearchResultCache(MeterRegistry meterRegistry,
+            @Value("${app.search.cache.enabled:true}") boolean enabled,
+            @Value("${app.search.cache.max-entries:1000}") long maxEntries,
+            @Value("${app.search.cache.ttl:5m}") Duration ttl) {
+        this.cache = new WeightedLruCache<>(maxEntries, entry -> 1);
+        this.enabled = enabled;
+        this.ttlMillis = ttl.toMillis();
+
+        // Request counts per result give the hit ratio, their timings the latency of each path
+        this.hitTimer = Timer.builder("search.requests").tag("cache", "hit").register(meterRegistry);
+        this.missTimer = Timer.builder("search.requests").tag("cache", "miss").register(meterRegistry);
+        this.coalescedTimer = Timer.builder("search.requests").tag("cache", "coalesced").register(meterRegistry);
+        this.invalidations = Counter.builder("search.cache.invalidations").register(meterRegistry);
+        FunctionCounter.builder("search.cache.evictions", cache, WeightedLruCache::evictionCount)
+                .register(meterRegistry);
+        Gauge.builder("search.cache.entries", cache, WeightedLruCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cached response for the query, or the loader's result, shared with any
+     * identical search already running
+     */
+    public SearchDTO.SearchResponse get(String query, Supplier<SearchDTO.SearchResponse> loader) {
+        List<String> tokens = new ArrayList<>(new TreeSet<>(SearchIndex.tokenize(query)));
+        if (!enabled || tokens.isEmpty()) {
+            return loader.get();
+        }
+        String key = String.join(" ", tokens);
+        long start = System.nanoTime();
+
+        CachedResponse cached = fresh(key, cache.get(key));
+        if (cached != null) {
+            hitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return withQuery(cached.response(), query);
+        }
+
+        CompletableFuture<SearchDTO.SearchResponse> load = new CompletableFuture<>();
+        CompletableFuture<SearchDTO.SearchResponse> running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            try {
+                return withQuery(running.join(), query);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            } finally {
+                coalescedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        long startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+        try {
+            SearchDTO.SearchResponse response = loader.get();
+            if (!response.isPartial()) {
+                store(key, tokens, response, startGeneration);
+            }
+            load.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+            missTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Drop the entries a saved or deleted document can affect
+     */
+    public void invalidate(SearchIndex.Document document) {
+        if (!enabled) {
+            return;
+        }
+        Set<String> terms = new HashSet<>(SearchIndex.tokenize(document.title()));
+        for (String field : document.body()) {
+            terms.addAll(SearchIndex.tokenize(field));
+        }
+
+        synchronized (this) {
+            generation++;
+            cache.removeIf((key, entry) -> entry.documents().contains(document.key())
+                    || SearchIndex.matchesAll(entry.tokens(), terms));
+        }
+        // Later requests start a fresh search instead of joining one that predates the change
+        inFlight.clear();
+        invalidations.increment();
+    }
+
+    private synchronized void store(String key, List<String> tokens, SearchDTO.SearchResponse response,
+            long startGeneration) {
+        if (generation != startGeneration) {
+            return;
+        }
+        Set<SearchIndex.DocKey> documents = new HashSet<>();
+        if (response.getResults() != null) {
+            response.getResults().forEach((category, items) -> items
+                    .forEach(item -> documents.add(new SearchIndex.DocKey(category, item.getId()))));
+        }
+        cache.put(key, new CachedResponse(tokens, documents, response, System.currentTimeMillis()));
+    }
+
+    private CachedResponse fresh(String key, CachedResponse cached) {
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt() > ttlMillis) {
+            cache.remove(key);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * The shared response, echoing this caller's query
+     */
+    private static SearchDTO.SearchResponse withQuery(SearchDTO.SearchResponse response, String query) {
+        return new SearchDTO.SearchResponse(query, response.getResults(), response.getTotalResults(),
+                response.isPartial(), response.getFacets());
+    }
+}
@@ -0,0 +1,97 @@
+package com.oceanlk.backend.service.search;
+
+import com.oceanlk.backend.dto.SearchDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typeahead completions for /api/search/suggest, from a {@link PrefixTrie}
+ * over the titles and names of all searchable content. Unlike full search
+ * this is always in memory, whichever search backend is active: titles are
+ * small and a completion has to answer faster than a database round trip.
+ *
+ * Saves and deletes arrive through SearchIndexListener and swap in a rebuilt
+ * trie; lookups read whichever trie is current without locking.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TitleSuggester {
+
+    private final SearchDocumentLoader documentLoader;
+
+    // Guarded by this
+    private final Map<SearchIndex.DocKey, SearchDTO.Suggestion> suggestions = new HashMap<>();
+
+    // Changes made while a reload is reading the database (null value = removed)
+    private Map<SearchIndex.DocKey, SearchDTO.Suggestion> journal;
+
+    private volatile PrefixTrie trie = PrefixTrie.empty();
+
+    public List<SearchDTO.Suggestion> suggest(String query, int limit) {
+        return trie.complete(query, Math.min(limit, PrefixTrie.MAX_RESULTS));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.index.rebuild-interval-ms:1800000}",
+            initialDelayString = "${app.search.index.rebuild-interval-ms:1800000}")
+    public void reload() {
+        synchronized (this) {
+            journal = new HashMap<>();
+        }
+        List<SearchIndex.Document> documents = documentLoader.loadAll();
+        synchronized (this) {
+            suggestions.clear();
+            documents.forEach(document -> suggestions.put(document.key(), toSuggestion(document)));
+            journal.forEach((key, suggestion) -> {
+                if (suggestion != null) {
+                    suggestions.put(key, suggestion);
+                } else {
+                    suggestions.remove(key);
+                }
+            });
+            journal = null;
+            rebuild();
+        }
+        log.debug("Title suggestions rebuilt with {} entries", suggestions.size());
+    }
+
+    public synchronized void put(SearchIndex.Document document) {
+        SearchDTO.Suggestion suggestion = toSuggestion(document);
+        if (journal != null) {
+            journal.put(document.key(), suggestion);
+        }
+        suggestions.put(document.key(), suggestion);
+        rebuild();
+    }
+
+    public synchronized void remove(SearchIndex.DocKey key) {
+        if (journal != null) {
+            journal.put(key, null);
+        }
+        if (suggestions.remove(key) != null) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        trie = PrefixTrie.build(suggestions.values());
+    }
+
+    private SearchDTO.Suggestion toSuggestion(SearchIndex.Document document) {
+        SearchDTO.SearchResultItem item = document.item();
+        return new SearchDTO.Suggestion(item.getTitle(), item.getType(), item.getId(), item.getUrl());
+    }
+}
@@ -0,0 +1,95 @@
+package com.oceanlk.backend.service.storage;
+
+import com.oceanlk.backend.dto.StoredFileMetadata;
+import com.oceanlk.backend.repository.StoredFileRepository;
+import com.oceanlk.backend.service.FileStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Online migration of payloads out of the stored_files.data column into the
+ * active blob store (app.files.blob-store). Runs in small batches while the
+ * application keeps serving: each row is copied, then switched to the new
+ * backend, and its BYTEA payload is only cleared once
+ * app.files.migration.retain-source has passed, so downloads that started
+ * from PostgreSQL can complete. Safe to run on several replicas at once.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.files.migration.enabled", havingValue = "true")
+public class BlobMigrationService {
+
+    private final StoredFileRepository storedFileRepository;
+    private final FileStorageService fileStorageService;
+    private final PostgresBlobStore postgresBlobStore;
+    private final HotFileCache hotFileCache;
+
+    @Value("${app.files.migration.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.files.migration.retain-source:10m}")
+    private Duration retainSource;
+
+    @Scheduled(fixedDelayString = "${app.files.migration.interval-ms:60000}", initialDelay = 30000)
+    public void migrateBatch() {
+        BlobStore target = fileStorageService.getActiveBlobStore();
+        if (PostgresBlobStore.BACKEND.equals(target.getBackend())) {
+            log.warn("Blob migration is enabled but app.files.blob-store is POSTGRES; nothing to migrate to");
+            return;
+        }
+
+        int cleared = storedFileRepository.clearMigratedData(LocalDateTime.now().minus(retainSource));
+
+        List<String> ids = storedFileRepository.findIdsStoredInDatabase(batchSize);
+        int migrated = 0;
+        for (String id : ids) {
+            try {
+                if (migrateFile(id, target)) {
+                    migrated++;
+                }
+            } catch (Exception e) {
+                // Leave the row on PostgreSQL; it is retried in the next batch
+                log.error("Blob migration failed for stored file {}: {}", id, e.getMessage());
+            }
+        }
+
+        if (migrated > 0 || cleared > 0) {
+            log.info("Blob migration: moved {} files to {}, released {} database payloads",
+                    migrated, target.getBackend(), cleared);
+        }
+    }
+
+    private boolean migrateFile(String id, BlobStore target) throws Exception {
+        StoredFileMetadata metadata = fileStorageService.getFileMetadata(id);
+        if (metadata == null || metadata.getSize() == null) {
+            return false;
+        }
+
+        try (InputStream in = postgresBlobStore.openStream(id)) {
+            target.write(id, in, metadata.getSize());
+        }
+
+        if (storedFileRepository.markMigrated(id, target.getBackend()) == 1) {
+            // Cached metadata still names POSTGRES, whose copy is only kept for retain-source
+            hotFileCache.invalidate(id);
+            return true;
+        }
+
+        // Deleted while we were copying: drop the orphaned copy. If another
+        // replica switched it first, its copy and ours are identical.
+        if (storedFileRepository.findStorageBackendById(id).isEmpty()) {
+            target.delete(id);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.oceanlk.backend.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Storage backend for stored file payloads. File metadata always lives in
+ * the stored_files table; each row records which backend holds its bytes
+ * in storage_backend.
+ */
+public interface BlobStore {
+
+    /**
+     * Identifier persisted in stored_files.storage_backend
+     */
+    String getBackend();
+
+    /**
+     * Store the payload for a stored_files row
+     *
+     * @param id     stored_files ID
+     * @param data   payload, read to the end but not closed
+     * @param length exact number of bytes in {@code data}
+     */
+    void write(String id, InputStream data, long length) throws IOException;
+
+    /**
+     * Copy a byte window of the payload to the given stream
+     *
+     * @param offset Zero-based position of the first byte to copy
+     */
+    void copyTo(String id, long offset, long length, OutputStream out) throws IOException;
+
+    /**
+     * Open the whole payload for sequential reading. The caller closes it.
+     */
+    InputStream openStream(String id) throws IOException;
+
+    /**
+     * Local file holding the payload, for zero-copy serving. Empty when the
+     * backend does not keep payloads on the local filesystem.
+     */
+    default Optional<Path> getLocalPath(String id) {
+        return Optional.empty();
+    }
+
+    /**
+     * Remove the payload. Missing payloads are ignored.
+     */
+    void delete(String id) throws IOException;
+}
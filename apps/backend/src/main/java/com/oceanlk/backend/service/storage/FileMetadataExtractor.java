@@ -0,0 +1,213 @@
+package com.oceanlk.backend.service.storage;
+
+import com.oceanlk.backend.dto.StoredFileLayout;
+import com.oceanlk.backend.dto.StoredFileMetadata;
+import com.oceanlk.backend.repository.StoredFileRepository;
+import com.oceanlk.backend.service.FileStorageService;
+import com.oceanlk.backend.util.BlurHash;
+import com.oceanlk.backend.util.PdfPageCounter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+
+/**
+ * Extracts layout metadata from new uploads in the background: pixel size
+ * and a BlurHash placeholder for images, the page count for PDFs. Work runs
+ * on a small fixed pool with a bounded queue; uploads that do not fit in the
+ * queue, and files stored before this existed, are picked up by a periodic
+ * backfill instead.
+ */
+@Service
+@Slf4j
+public class FileMetadataExtractor {
+
+    // Longest side of the thumbnail the BlurHash is computed from
+    private static final int PLACEHOLDER_SOURCE_SIZE = 64;
+
+    private final StoredFileRepository storedFileRepository;
+    private final FileStorageService fileStorageService;
+    private final ThreadPoolExecutor executor;
+
+    // PDFs are read whole to find the page tree; larger ones are skipped
+    @Value("${app.files.metadata.max-pdf-size:20971520}")
+    private long maxPdfSize;
+
+    @Value("${app.files.metadata.backfill-batch-size:50}")
+    private int backfillBatchSize;
+
+    public FileMetadataExtractor(StoredFileRepository storedFileRepository, FileStorageService fileStorageService,
+            @Value("${app.files.metadata.workers:2}") int workers,
+            @Value("${app.files.metadata.queue-capacity:200}") int queueCapacity) {
+        this.storedFileRepository = storedFileRepository;
+        this.fileStorageService = fileStorageService;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "file-metadata-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // A full queue drops the task; the backfill will get to the file
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Queued once the upload's transaction (if any) has committed, so the
+     * worker can see the new row
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFileStored(FileStoredEvent event) {
+        if (isExtractable(event.contentType())) {
+            executor.execute(() -> extract(event.fileId()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.files.metadata.backfill-interval-ms:300000}", initialDelay = 120000)
+    public void backfill() {
+        // Only top up an idle pool, so the backfill never crowds out fresh uploads
+        if (!executor.getQueue().isEmpty()) {
+            return;
+        }
+        for (String id : storedFileRepository.findIdsWithoutLayout(backfillBatchSize)) {
+            executor.execute(() -> extract(id));
+        }
+    }
+
+    /**
+     * Layout metadata for the files behind the given /api/files/ URLs, keyed
+     * by URL. URLs without extracted metadata are left out.
+     */
+    public Map<String, StoredFileLayout> findLayouts(Collection<String> urls) {
+        Map<String, String> idsByUrl = new HashMap<>();
+        for (String url : urls) {
+            if (url == null) {
+                continue;
+            }
+            Matcher matcher = FileStorageService.FILE_URL.matcher(url);
+            if (matcher.find()) {
+                idsByUrl.put(url, matcher.group(1));
+            }
+        }
+        if (idsByUrl.isEmpty()) {
+            return Map.of();
+        }
+
+        // URLs carry either the file ID or, for /api/files/{hash}/{name}, its content hash
+        Map<String, StoredFileLayout> layoutsByKey = new HashMap<>();
+        for (StoredFileLayout layout : storedFileRepository.findLayoutsByIdsOrHashes(idsByUrl.values())) {
+            layoutsByKey.put(layout.getId(), layout);
+            if (layout.getContentHash() != null) {
+                layoutsByKey.putIfAbsent(layout.getContentHash(), layout);
+            }
+        }
+
+        Map<String, StoredFileLayout> layouts = new HashMap<>();
+        idsByUrl.forEach((url, key) -> {
+            StoredFileLayout layout = layoutsByKey.get(key);
+            if (layout != null) {
+                layouts.put(url, layout);
+            }
+        });
+        return layouts;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean isExtractable(String contentType) {
+        return contentType != null && (contentType.startsWith("image/") || contentType.equals("application/pdf"));
+    }
+
+    private void extract(String id) {
+        try {
+            StoredFileMetadata metadata = fileStorageService.getFileMetadata(id);
+            if (metadata == null) {
+                return;
+            }
+
+            if (Objects.equals(metadata.getContentType(), "application/pdf")) {
+                Integer pages = null;
+                if (metadata.getSize() != null && metadata.getSize() <= maxPdfSize) {
+                    try (InputStream in = openStream(metadata)) {
+                        pages = PdfPageCounter.countPages(in.readAllBytes());
+                    }
+                }
+                storedFileRepository.saveLayout(id, null, null, null, pages);
+            } else {
+                extractImage(metadata);
+            }
+        } catch (Exception e) {
+            log.warn("Could not extract metadata from file {}: {}", id, e.getMessage());
+            // Recorded as extracted (with nothing found) so it is not retried forever
+            storedFileRepository.saveLayout(id, null, null, null, null);
+        }
+    }
+
+    /**
+     * Reads the dimensions from the header, then decodes a subsampled copy of
+     * at most ~64px for the placeholder, so even a large photo needs little
+     * memory
+     */
+    private void extractImage(StoredFileMetadata metadata) throws IOException {
+        try (InputStream in = openStream(metadata);
+                ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageIn);
+            if (!readers.hasNext()) {
+                // e.g. WebP without an ImageIO plugin
+                storedFileRepository.saveLayout(metadata.getId(), null, null, null, null);
+                return;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageIn, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                int step = Math.max(1, Math.max(width, height) / PLACEHOLDER_SOURCE_SIZE);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage thumbnail = reader.read(0, param);
+
+                int thumbWidth = thumbnail.getWidth();
+                int thumbHeight = thumbnail.getHeight();
+                int[] pixels = thumbnail.getRGB(0, 0, thumbWidth, thumbHeight, null, 0, thumbWidth);
+                boolean portrait = height > width;
+                String blurhash = BlurHash.encode(pixels, thumbWidth, thumbHeight, portrait ? 3 : 4, portrait ? 4 : 3);
+
+                storedFileRepository.saveLayout(metadata.getId(), width, height, blurhash, null);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private InputStream openStream(StoredFileMetadata metadata) throws IOException {
+        return fileStorageService.getBlobStore(metadata.getStorageBackend()).openStream(metadata.getId());
+    }
+}
@@ -0,0 +1,8 @@
+package com.oceanlk.backend.service.storage;
+
+/**
+ * Published when an upload creates a new stored file (not when it is
+ * deduplicated onto an existing one)
+ */
+public record FileStoredEvent(String fileId, String contentType) {
+}
@@ -0,0 +1,100 @@
+package com.oceanlk.backend.service.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Keeps payloads as plain files under app.files.filesystem.root, sharded by
+ * the first characters of the ID. Files are written to a temporary name and
+ * atomically moved into place, so readers never see a partial payload.
+ */
+@Component
+public class FileSystemBlobStore implements BlobStore {
+
+    public static final String BACKEND = "FILESYSTEM";
+
+    private final Path root;
+
+    public FileSystemBlobStore(@Value("${app.files.filesystem.root:./data/files}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String getBackend() {
+        return BACKEND;
+    }
+
+    @Override
+    public void write(String id, InputStream data, long length) throws IOException {
+        Path target = resolve(id);
+        Files.createDirectories(target.getParent());
+
+        Path temp = Files.createTempFile(target.getParent(), id, ".part");
+        try {
+            long written = Files.copy(data, temp, StandardCopyOption.REPLACE_EXISTING);
+            if (written != length) {
+                throw new IOException("Expected " + length + " bytes for file " + id + " but received " + written);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void copyTo(String id, long offset, long length, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(id), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = offset;
+            long remaining = length;
+
+            // transferTo lets the kernel move the bytes (sendfile/mmap) where the
+            // target allows it, without staging them in the Java heap
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    throw new IOException("File " + id + " ended early while streaming");
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    @Override
+    public InputStream openStream(String id) throws IOException {
+        return Files.newInputStream(resolve(id));
+    }
+
+    @Override
+    public Optional<Path> getLocalPath(String id) {
+        Path path = resolve(id);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    @Override
+    public void delete(String id) throws IOException {
+        Files.deleteIfExists(resolve(id));
+    }
+
+    private Path resolve(String id) {
+        // IDs are UUIDs; reject anything that could escape the root directory
+        if (id == null || !id.matches("[A-Za-z0-9-]{8,64}")) {
+            throw new IllegalArgumentException("Invalid stored file ID: " + id);
+        }
+        return root.resolve(id.substring(0, 2)).resolve(id.substring(2, 4)).resolve(id);
+    }
+}
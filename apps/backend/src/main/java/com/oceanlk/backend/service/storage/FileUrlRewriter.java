@@ -0,0 +1,210 @@
+package com.oceanlk.backend.service.storage;
+
+import com.oceanlk.backend.dto.StoredFileMetadata;
+import com.oceanlk.backend.repository.CompanyRepository;
+import com.oceanlk.backend.repository.CorporateLeaderRepository;
+import com.oceanlk.backend.repository.EventRepository;
+import com.oceanlk.backend.repository.MediaItemRepository;
+import com.oceanlk.backend.repository.PageContentRepository;
+import com.oceanlk.backend.repository.PartnerRepository;
+import com.oceanlk.backend.repository.TestimonialRepository;
+import com.oceanlk.backend.service.FileStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+
+/**
+ * Rewrites stored /api/files/{id} URLs in the known image fields
+ * (Company.logoUrl, MediaItem.imageUrl and galleryImages,
+ * CorporateLeader.image, ...) to the immutable /api/files/{hash}/{name} form,
+ * so pages link straight to a URL browsers never need to revalidate. Changed
+ * entities are saved through their repositories, so the search index and
+ * public content caches see the new URLs. Links it does not cover still work
+ * through a redirect. Off unless app.files.url-rewrite.enabled is set.
+ *
+ * Files uploaded before deduplication may have several rows with the same
+ * hash, and a hashed URL is released against the oldest of them. Once an
+ * entity is saved with the new URL, the reference its old link held is
+ * therefore moved onto that row, so a later replace or delete releases the
+ * row the entity really uses.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FileUrlRewriter {
+
+    private final FileStorageService fileStorageService;
+    private final CompanyRepository companyRepository;
+    private final MediaItemRepository mediaItemRepository;
+    private final CorporateLeaderRepository corporateLeaderRepository;
+    private final PartnerRepository partnerRepository;
+    private final TestimonialRepository testimonialRepository;
+    private final EventRepository eventRepository;
+    private final PageContentRepository pageContentRepository;
+
+    @Value("${app.files.url-rewrite.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Where a file's ID URL is rewritten to, and the row that URL resolves to
+     */
+    private record Target(String url, String fileId) {
+    }
+
+    @Scheduled(fixedDelayString = "${app.files.url-rewrite.interval-ms:3600000}", initialDelay = 60000)
+    public void scheduledRewrite() {
+        if (!enabled) {
+            return;
+        }
+        int rewritten = rewrite();
+        if (rewritten > 0) {
+            log.info("Rewrote stored file URLs of {} entities to their immutable form", rewritten);
+        }
+    }
+
+    /**
+     * @return number of entities updated
+     */
+    public int rewrite() {
+        // Resolved once per run; a file may be linked from many entities
+        Map<String, Optional<Target>> targetsById = new HashMap<>();
+        // IDs replaced in the entity being rewritten
+        Set<String> replaced = new LinkedHashSet<>();
+        // IDs whose reference was already moved this run
+        Set<String> moved = new HashSet<>();
+        UnaryOperator<String> urls = value -> rewriteUrls(value, targetsById, replaced);
+        Consumer<Set<String>> afterSave = ids -> ids.stream()
+                .filter(moved::add)
+                .forEach(id -> targetsById.get(id).ifPresent(target -> moveReference(id, target)));
+
+        int rewritten = 0;
+        rewritten += rewriteEach(companyRepository, (company, rewriter) ->
+                rewriteField(company::getLogoUrl, company::setLogoUrl, rewriter)
+                        | rewriteField(company::getImage, company::setImage, rewriter), urls, replaced, afterSave);
+        rewritten += rewriteEach(mediaItemRepository, (item, rewriter) ->
+                rewriteField(item::getImageUrl, item::setImageUrl, rewriter)
+                        | rewriteList(item::getGalleryImages, item::setGalleryImages, rewriter),
+                urls, replaced, afterSave);
+        rewritten += rewriteEach(corporateLeaderRepository, (leader, rewriter) ->
+                rewriteField(leader::getImage, leader::setImage, rewriter), urls, replaced, afterSave);
+        rewritten += rewriteEach(partnerRepository, (partner, rewriter) ->
+                rewriteField(partner::getLogoUrl, partner::setLogoUrl, rewriter), urls, replaced, afterSave);
+        rewritten += rewriteEach(testimonialRepository, (testimonial, rewriter) ->
+                rewriteField(testimonial::getImage, testimonial::setImage, rewriter), urls, replaced, afterSave);
+        rewritten += rewriteEach(eventRepository, (event, rewriter) ->
+                rewriteField(event::getImageUrl, event::setImageUrl, rewriter), urls, replaced, afterSave);
+        rewritten += rewriteEach(pageContentRepository, (content, rewriter) ->
+                rewriteField(content::getImageUrl, content::setImageUrl, rewriter)
+                        | rewriteField(content::getContent, content::setContent, rewriter),
+                urls, replaced, afterSave);
+        return rewritten;
+    }
+
+    /**
+     * Saves, each in its own transaction, the entities whose fields changed,
+     * then hands the IDs replaced in each to {@code afterSave}
+     */
+    private static <T> int rewriteEach(JpaRepository<T, ?> repository,
+            BiPredicate<T, UnaryOperator<String>> fields, UnaryOperator<String> urls, Set<String> replaced,
+            Consumer<Set<String>> afterSave) {
+        int rewritten = 0;
+        for (T entity : repository.findAll()) {
+            replaced.clear();
+            if (fields.test(entity, urls)) {
+                repository.save(entity);
+                afterSave.accept(replaced);
+                rewritten++;
+            }
+        }
+        return rewritten;
+    }
+
+    private static boolean rewriteField(Supplier<String> getter, Consumer<String> setter,
+            UnaryOperator<String> urls) {
+        String value = getter.get();
+        if (value == null) {
+            return false;
+        }
+        String rewritten = urls.apply(value);
+        if (rewritten.equals(value)) {
+            return false;
+        }
+        setter.accept(rewritten);
+        return true;
+    }
+
+    private static boolean rewriteList(Supplier<List<String>> getter, Consumer<List<String>> setter,
+            UnaryOperator<String> urls) {
+        List<String> values = getter.get();
+        if (values == null) {
+            return false;
+        }
+        List<String> rewritten = values.stream().map(value -> value == null ? null : urls.apply(value)).toList();
+        if (rewritten.equals(values)) {
+            return false;
+        }
+        setter.accept(new ArrayList<>(rewritten));
+        return true;
+    }
+
+    /**
+     * Replaces every ID URL in the value whose file has a content hash; query
+     * strings (?w=400) stay in place after the replaced path
+     */
+    private String rewriteUrls(String value, Map<String, Optional<Target>> targetsById, Set<String> replaced) {
+        Matcher matcher = FileStorageService.FILE_URL.matcher(value);
+        StringBuilder rewritten = new StringBuilder();
+        while (matcher.find()) {
+            String key = matcher.group(1);
+            Optional<Target> target = FileStorageService.isContentHash(key) ? Optional.empty()
+                    : targetsById.computeIfAbsent(key, this::target);
+            if (target.isPresent()) {
+                replaced.add(key);
+            }
+            matcher.appendReplacement(rewritten,
+                    Matcher.quoteReplacement(target.map(Target::url).orElse(matcher.group())));
+        }
+        matcher.appendTail(rewritten);
+        return rewritten.toString();
+    }
+
+    /**
+     * Empty for missing files and files without a content hash, which keep
+     * their ID URL
+     */
+    private Optional<Target> target(String id) {
+        StoredFileMetadata metadata = fileStorageService.getFileMetadata(id);
+        if (metadata == null || metadata.getContentHash() == null) {
+            return Optional.empty();
+        }
+        StoredFileMetadata canonical = fileStorageService.getFileMetadataByHash(metadata.getContentHash());
+        if (canonical == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Target(FileStorageService.getFileUrl(metadata), canonical.getId()));
+    }
+
+    private void moveReference(String id, Target target) {
+        if (!id.equals(target.fileId()) && !fileStorageService.moveReference(id, target.fileId())) {
+            // The hashed URL now resolves to whichever copy is left, which may be this one
+            log.warn("Could not move reference of stored file {} to {}; it was deleted", id, target.fileId());
+        }
+    }
+}
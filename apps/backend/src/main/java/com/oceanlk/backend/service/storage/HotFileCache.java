@@ -0,0 +1,157 @@
+package com.oceanlk.backend.service.storage;
+
+import com.oceanlk.backend.dto.StoredFileMetadata;
+import com.oceanlk.backend.util.WeightedLruCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.time.Duration;
+
+/**
+ * Byte-bounded LRU cache of small, frequently served files (partner and
+ * company logos, leadership portraits) so that a hit needs neither a metadata
+ * query nor a payload read. Only files up to max-entry-size are admitted.
+ *
+ * Payloads can be kept in direct ByteBuffers so a large cache does not add to
+ * heap and GC pressure; this counts against -XX:MaxDirectMemorySize instead.
+ * Deletes invalidate the local entry; other replicas drop it when the TTL
+ * runs out.
+ *
+ * It also remembers which row each content hash resolves to, for any file
+ * size, since every /api/files/{id} link is redirected to a hashed URL and
+ * would otherwise cost a stored_files query per request.
+ */
+@Component
+public class HotFileCache {
+
+    private final WeightedLruCache<String, CachedFile> cache;
+    private final WeightedLruCache<String, CachedMetadata> metadataByHash;
+    private final boolean enabled;
+    private final long maxEntrySize;
+    private final boolean offHeap;
+    private final long ttlMillis;
+
+    /**
+     * A cached file. {@code data} is read-only and shared, so readers work on
+     * duplicates of it.
+     */
+    public record CachedFile(StoredFileMetadata metadata, ByteBuffer data, long loadedAt) {
+    }
+
+    private record CachedMetadata(StoredFileMetadata metadata, long loadedAt) {
+    }
+
+    public HotFileCache(MeterRegistry meterRegistry,
+            @Value("${app.files.hot-cache.enabled:true}") boolean enabled,
+            @Value("${app.files.hot-cache.max-size:33554432}") long maxSize,
+            @Value("${app.files.hot-cache.max-entry-size:262144}") long maxEntrySize,
+            @Value("${app.files.hot-cache.off-heap:false}") boolean offHeap,
+            @Value("${app.files.hot-cache.ttl:10m}") Duration ttl,
+            @Value("${app.files.hot-cache.max-hash-entries:4096}") long maxHashEntries) {
+        this.cache = new WeightedLruCache<>(maxSize, file -> file.data().capacity());
+        this.metadataByHash = new WeightedLruCache<>(maxHashEntries, metadata -> 1);
+        this.enabled = enabled;
+        this.maxEntrySize = maxEntrySize;
+        this.offHeap = offHeap;
+        this.ttlMillis = ttl.toMillis();
+
+        FunctionCounter.builder("files.hot_cache.requests", cache, WeightedLruCache::hitCount)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("files.hot_cache.requests", cache, WeightedLruCache::missCount)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("files.hot_cache.evictions", cache, WeightedLruCache::evictionCount)
+                .register(meterRegistry);
+        Gauge.builder("files.hot_cache.size", cache, WeightedLruCache::weight)
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("files.hot_cache.entries", cache, WeightedLruCache::size)
+                .register(meterRegistry);
+        FunctionCounter.builder("files.hot_cache.hash_lookups", metadataByHash, WeightedLruCache::hitCount)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("files.hot_cache.hash_lookups", metadataByHash, WeightedLruCache::missCount)
+                .tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Whether a file is small enough to be cached
+     */
+    public boolean admits(StoredFileMetadata metadata) {
+        return enabled && metadata.getSize() != null && metadata.getSize() <= maxEntrySize;
+    }
+
+    /**
+     * Cached file for serving; counts towards the hit and miss metrics
+     */
+    public CachedFile get(String id) {
+        return enabled ? fresh(id, cache.get(id)) : null;
+    }
+
+    /**
+     * Cached metadata only, without touching the hit and miss metrics
+     */
+    public StoredFileMetadata getMetadata(String id) {
+        CachedFile file = enabled ? fresh(id, cache.peek(id)) : null;
+        return file != null ? file.metadata() : null;
+    }
+
+    public CachedFile put(StoredFileMetadata metadata, byte[] data) {
+        ByteBuffer buffer = offHeap ? ByteBuffer.allocateDirect(data.length).put(data).flip() : ByteBuffer.wrap(data);
+        CachedFile file = new CachedFile(metadata, buffer.asReadOnlyBuffer(), System.currentTimeMillis());
+        cache.put(metadata.getId(), file);
+        return file;
+    }
+
+    /**
+     * Metadata of the row a content hash resolves to
+     */
+    public StoredFileMetadata getMetadataByHash(String hash) {
+        if (!enabled) {
+            return null;
+        }
+        CachedMetadata cached = metadataByHash.get(hash);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt() > ttlMillis) {
+            metadataByHash.remove(hash);
+            return null;
+        }
+        return cached != null ? cached.metadata() : null;
+    }
+
+    public void putMetadataByHash(StoredFileMetadata metadata) {
+        if (enabled && metadata.getContentHash() != null) {
+            metadataByHash.put(metadata.getContentHash(),
+                    new CachedMetadata(metadata, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Drops the file and, if its hash resolved to it, the hash lookup, so the
+     * next request finds the copy that is left
+     */
+    public void invalidate(String id) {
+        cache.remove(id);
+        metadataByHash.removeIf((hash, cached) -> cached.metadata().getId().equals(id));
+    }
+
+    /**
+     * Copy a window of a cached file to the given stream
+     */
+    public void copyTo(CachedFile file, long offset, long length, OutputStream out) throws IOException {
+        ByteBuffer slice = file.data().duplicate();
+        slice.position(Math.toIntExact(offset)).limit(Math.toIntExact(offset + length));
+        Channels.newChannel(out).write(slice);
+    }
+
+    private CachedFile fresh(String id, CachedFile file) {
+        if (file != null && System.currentTimeMillis() - file.loadedAt() > ttlMillis) {
+            cache.remove(id);
+            return null;
+        }
+        return file;
+    }
+}
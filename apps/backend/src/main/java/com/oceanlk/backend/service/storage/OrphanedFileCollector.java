@@ -0,0 +1,207 @@
+package com.oceanlk.backend.service.storage;
+
+import com.oceanlk.backend.dto.StoredFileMetadata;
+import com.oceanlk.backend.repository.StoredFileRepository;
+import com.oceanlk.backend.service.FileStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+
+/**
+ * Mark-and-sweep collection of stored files that no content refers to any
+ * more (replaced gallery images, old logos, uploads of rejected changes).
+ *
+ * Mark: every text column of every table is searched for /api/files/{id}
+ * and /api/files/{hash}/{name} URLs, so new entity fields are covered without
+ * changes here. A hashed URL keeps every copy of that content. Tables that
+ * only record history are skipped, and pending_changes only counts while a
+ * change is still PENDING. Sweep: files last uploaded before the grace period
+ * and not marked are deleted in bounded batches. The grace period covers an
+ * upload whose entity has not been saved yet; a file that was not marked is
+ * also searched for once more right before it is deleted, in case content
+ * saved during the run started using it again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrphanedFileCollector {
+
+    // Tables that hold payloads or history rather than live content
+    static final Set<String> SKIPPED_TABLES = Set.of(
+            "stored_files", "upload_sessions", "upload_session_chunks", "audit_logs", "notifications");
+
+    // Extra conditions for tables whose rows only count in some states
+    private static final Map<String, String> TABLE_FILTERS = Map.of(
+            "pending_changes", "status = 'PENDING'");
+
+    // Columns holding a bare file ID rather than a URL
+    private static final Map<String, String> RAW_ID_COLUMNS = Map.of(
+            "talent_pool_applications", "cv_file_id");
+
+    private static final int SAMPLE_SIZE = 50;
+
+    private record TextColumn(String table, String name) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StoredFileRepository storedFileRepository;
+    private final FileStorageService fileStorageService;
+
+    @Value("${app.files.gc.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.files.gc.grace-period:7d}")
+    private Duration gracePeriod;
+
+    @Value("${app.files.gc.batch-size:200}")
+    private int batchSize;
+
+    // Upper bound on deletions per run, so a mistake cannot empty the store at once
+    @Value("${app.files.gc.max-deletes-per-run:1000}")
+    private int maxDeletesPerRun;
+
+    /**
+     * Outcome of a collection run, or of a dry run that deletes nothing
+     */
+    public record Report(boolean dryRun, LocalDateTime cutoff, int referencedFiles, int candidatesScanned,
+            int orphanedFiles, long orphanedBytes, int deletedFiles, List<StoredFileMetadata> sample) {
+    }
+
+    @Scheduled(cron = "${app.files.gc.cron:0 30 3 * * *}")
+    public void scheduledCollect() {
+        if (!enabled) {
+            return;
+        }
+        Report report = collect(false);
+        log.info("Orphaned file collection: {} of {} candidates unreferenced, {} deleted",
+                report.orphanedFiles(), report.candidatesScanned(), report.deletedFiles());
+    }
+
+    public Report collect(boolean dryRun) {
+        // Fixed before marking, so anything uploaded during the scan is out of reach
+        LocalDateTime cutoff = LocalDateTime.now().minus(gracePeriod);
+        List<TextColumn> columns = findTextColumns();
+        Set<String> referenced = markReferencedFiles(columns);
+
+        int scanned = 0;
+        int orphaned = 0;
+        long orphanedBytes = 0;
+        int deleted = 0;
+        List<StoredFileMetadata> sample = new ArrayList<>();
+
+        String afterId = "";
+        List<StoredFileMetadata> batch;
+        do {
+            batch = storedFileRepository.findMetadataUploadedBefore(cutoff, afterId, batchSize);
+            for (StoredFileMetadata file : batch) {
+                scanned++;
+                if (referenced.contains(file.getId())
+                        || (file.getContentHash() != null && referenced.contains(file.getContentHash()))) {
+                    continue;
+                }
+
+                orphaned++;
+                orphanedBytes += file.getSize() != null ? file.getSize() : 0;
+                if (sample.size() < SAMPLE_SIZE) {
+                    sample.add(file);
+                }
+
+                if (!dryRun && deleted < maxDeletesPerRun) {
+                    try {
+                        if (!isReferenced(columns, file) && fileStorageService.purgeOrphan(file, cutoff)) {
+                            deleted++;
+                        }
+                    } catch (Exception e) {
+                        log.warn("Could not delete orphaned file {}: {}", file.getId(), e.getMessage());
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == batchSize);
+
+        return new Report(dryRun, cutoff, referenced.size(), scanned, orphaned, orphanedBytes, deleted, sample);
+    }
+
+    /**
+     * Text columns of the tables that hold live content
+     */
+    private List<TextColumn> findTextColumns() {
+        return jdbcTemplate.queryForList(
+                "SELECT table_name, column_name FROM information_schema.columns "
+                        + "WHERE table_schema = current_schema() "
+                        + "AND data_type IN ('text', 'character varying')")
+                .stream()
+                .map(column -> new TextColumn((String) column.get("table_name"), (String) column.get("column_name")))
+                .filter(column -> !SKIPPED_TABLES.contains(column.table()))
+                .toList();
+    }
+
+    /**
+     * IDs and content hashes of every file referenced from live content
+     */
+    private Set<String> markReferencedFiles(List<TextColumn> columns) {
+        Set<String> referenced = new HashSet<>();
+
+        for (TextColumn column : columns) {
+            String sql = "SELECT \"" + column.name() + "\" FROM \"" + column.table() + "\" WHERE \""
+                    + column.name() + "\" LIKE '%/api/files/%'" + tableFilter(column.table());
+            jdbcTemplate.query(sql, rs -> {
+                Matcher matcher = FileStorageService.FILE_URL.matcher(rs.getString(1));
+                while (matcher.find()) {
+                    referenced.add(matcher.group(1));
+                }
+            });
+        }
+
+        RAW_ID_COLUMNS.forEach((table, name) -> jdbcTemplate.query(
+                "SELECT \"" + name + "\" FROM \"" + table + "\" WHERE \"" + name + "\" IS NOT NULL",
+                rs -> {
+                    referenced.add(rs.getString(1));
+                }));
+
+        return referenced;
+    }
+
+    /**
+     * Whether live content refers to the file now: one query that looks for
+     * its ID and hashed URL in every text column and stops at the first hit
+     */
+    private boolean isReferenced(List<TextColumn> columns, StoredFileMetadata file) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        for (TextColumn column : columns) {
+            String condition = "SELECT 1 FROM \"" + column.table() + "\" WHERE (\"" + column.name() + "\" LIKE ?";
+            args.add("%/api/files/" + file.getId() + "%");
+            if (file.getContentHash() != null) {
+                condition += " OR \"" + column.name() + "\" LIKE ?";
+                args.add("%/api/files/" + file.getContentHash() + "/%");
+            }
+            conditions.add(condition + ")" + tableFilter(column.table()));
+        }
+        RAW_ID_COLUMNS.forEach((table, name) -> {
+            conditions.add("SELECT 1 FROM \"" + table + "\" WHERE \"" + name + "\" = ?");
+            args.add(file.getId());
+        });
+
+        String sql = "SELECT EXISTS (" + String.join(" UNION ALL ", conditions) + ")";
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class, args.toArray()));
+    }
+
+    private static String tableFilter(String table) {
+        return TABLE_FILTERS.containsKey(table) ? " AND " + TABLE_FILTERS.get(table) : "";
+    }
+}
@@ -0,0 +1,130 @@
+package com.oceanlk.backend.service.storage;
+
+import com.oceanlk.backend.repository.StoredFileRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Keeps payloads in the stored_files.data BYTEA column (the original layout)
+ */
+@Component
+@RequiredArgsConstructor
+public class PostgresBlobStore implements BlobStore {
+
+    public static final String BACKEND = "POSTGRES";
+
+    private final StoredFileRepository storedFileRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Bytes fetched per round-trip when streaming a payload out of stored_files
+    @Value("${app.files.stream-chunk-size:262144}")
+    private int streamChunkSize;
+
+    @Override
+    public String getBackend() {
+        return BACKEND;
+    }
+
+    @Override
+    public void write(String id, InputStream data, long length) throws IOException {
+        // The driver streams a length-bounded binary parameter to the server
+        // instead of buffering it
+        jdbcTemplate.update("UPDATE stored_files SET data = ? WHERE id = ?", ps -> {
+            ps.setBinaryStream(1, data, length);
+            ps.setString(2, id);
+        });
+    }
+
+    @Override
+    public void copyTo(String id, long offset, long length, OutputStream out) throws IOException {
+        long position = offset;
+        long remaining = length;
+
+        while (remaining > 0) {
+            int chunkLength = (int) Math.min(streamChunkSize, remaining);
+            byte[] chunk = storedFileRepository.readDataChunk(id, Math.toIntExact(position + 1), chunkLength);
+            if (chunk == null || chunk.length == 0) {
+                throw new IOException("File " + id + " ended early or was deleted while streaming");
+            }
+
+            out.write(chunk);
+            position += chunk.length;
+            remaining -= chunk.length;
+        }
+    }
+
+    @Override
+    public InputStream openStream(String id) {
+        return new ChunkedInputStream(id);
+    }
+
+    @Override
+    public void delete(String id) {
+        jdbcTemplate.update("UPDATE stored_files SET data = NULL WHERE id = ?", id);
+    }
+
+    /**
+     * Sequential reader that fetches one chunk of the data column at a time
+     */
+    private class ChunkedInputStream extends InputStream {
+
+        private final String id;
+        private byte[] chunk = new byte[0];
+        private int chunkPosition;
+        private long nextOffset;
+        private boolean exhausted;
+
+        ChunkedInputStream(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return chunk[chunkPosition++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(len, chunk.length - chunkPosition);
+            System.arraycopy(chunk, chunkPosition, buffer, off, count);
+            chunkPosition += count;
+            return count;
+        }
+
+        private boolean fill() {
+            if (chunkPosition < chunk.length) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+
+            byte[] next = storedFileRepository.readDataChunk(id, Math.toIntExact(nextOffset + 1), streamChunkSize);
+            if (next == null || next.length == 0) {
+                exhausted = true;
+                return false;
+            }
+            // A short chunk is the tail of the payload
+            exhausted = next.length < streamChunkSize;
+            chunk = next;
+            chunkPosition = 0;
+            nextOffset += next.length;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.oceanlk.backend.service.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Pass-through stream used while an upload is piped into storage. It computes
+ * the SHA-256 of everything read, fails as soon as more bytes arrive than were
+ * declared, and checks the leading bytes against the declared content type so
+ * that a mislabelled file is rejected before the rest of it is stored.
+ */
+public class ValidatingInputStream extends FilterInputStream {
+
+    private static final int SIGNATURE_LENGTH = 12;
+
+    private final String contentType;
+    private final long expectedSize;
+    private final boolean checkSignature;
+    private final MessageDigest digest;
+    private final byte[] signature = new byte[SIGNATURE_LENGTH];
+    private long count;
+    private boolean signatureChecked;
+
+    /**
+     * @param checkSignature whether {@code in} starts at byte 0 of the file, so
+     *                       its leading bytes can be matched against
+     *                       {@code contentType}
+     */
+    public ValidatingInputStream(InputStream in, String contentType, long expectedSize, boolean checkSignature) {
+        super(in);
+        this.contentType = contentType;
+        this.expectedSize = expectedSize;
+        this.checkSignature = checkSignature;
+        this.signatureChecked = !checkSignature;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            accept(new byte[] { (byte) b }, 0, 1);
+        } else {
+            checkSignature();
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int off, int len) throws IOException {
+        int n = super.read(buffer, off, len);
+        if (n > 0) {
+            accept(buffer, off, n);
+        } else if (n == -1) {
+            checkSignature();
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        throw new IOException("Skipping is not supported while validating an upload");
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Confirm that exactly the declared number of bytes was received
+     */
+    public void verifyComplete() throws IOException {
+        if (count == expectedSize && super.read() != -1) {
+            throw new IOException("Upload is larger than the declared " + expectedSize + " bytes");
+        }
+        if (count != expectedSize) {
+            throw new IOException("Upload ended after " + count + " of " + expectedSize + " bytes");
+        }
+        checkSignature();
+    }
+
+    public String getHexDigest() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    private void accept(byte[] buffer, int off, int len) throws IOException {
+        if (!signatureChecked && count < SIGNATURE_LENGTH) {
+            int copy = (int) Math.min(len, SIGNATURE_LENGTH - count);
+            System.arraycopy(buffer, off, signature, (int) count, copy);
+        }
+
+        count += len;
+        if (count > expectedSize) {
+            throw new IOException("Upload is larger than the declared " + expectedSize + " bytes");
+        }
+        digest.update(buffer, off, len);
+
+        if (count >= SIGNATURE_LENGTH || count == expectedSize) {
+            checkSignature();
+        }
+    }
+
+    private void checkSignature() throws IOException {
+        if (signatureChecked) {
+            return;
+        }
+        signatureChecked = true;
+
+        byte[] header = Arrays.copyOf(signature, (int) Math.min(count, SIGNATURE_LENGTH));
+        if (!matchesContentType(header)) {
+            throw new IOException("File content does not match its declared type " + contentType);
+        }
+    }
+
+    /**
+     * Magic-number check for the types whose signatures are unambiguous. Other
+     * allowed types (Office documents, video containers) are not sniffed.
+     */
+    private boolean matchesContentType(byte[] header) {
+        return switch (contentType) {
+            case "image/jpeg", "image/jpg" -> startsWith(header, 0, new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF });
+            case "image/png" -> startsWith(header, 0, new byte[] { (byte) 0x89, 'P', 'N', 'G' });
+            case "image/gif" -> startsWith(header, 0, ascii("GIF8"));
+            case "image/webp" -> startsWith(header, 0, ascii("RIFF")) && startsWith(header, 8, ascii("WEBP"));
+            case "application/pdf" -> startsWith(header, 0, ascii("%PDF"));
+            default -> true;
+        };
+    }
+
+    private static boolean startsWith(byte[] header, int offset, byte[] prefix) {
+        if (header.length < offset + prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (header[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
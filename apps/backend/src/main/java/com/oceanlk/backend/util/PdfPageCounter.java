@@ -0,0 +1,113 @@
+package com.oceanlk.backend.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Page count of a PDF without a PDF library. Reads /Count from the page-tree
+ * (/Type /Pages) dictionaries; PDF 1.5+ files may keep those inside
+ * compressed object streams, so Flate streams are inflated and searched too.
+ * Falls back to counting /Type /Page objects. Returns null when nothing
+ * recognisable is found, e.g. for encrypted files.
+ */
+public final class PdfPageCounter {
+
+    // A dictionary without nested dictionaries that declares /Type /Pages
+    private static final Pattern PAGES_DICT = Pattern.compile(
+            "<<((?:(?!<<|>>).)*?/Type\\s*/Pages\\b(?:(?!<<|>>).)*?)>>", Pattern.DOTALL);
+    private static final Pattern COUNT = Pattern.compile("/Count\\s+(\\d+)");
+    private static final Pattern PAGE_OBJECT = Pattern.compile("/Type\\s*/Page\\b(?!s)");
+    private static final Pattern FLATE_STREAM = Pattern.compile(
+            "/FlateDecode(?:(?!stream).){0,400}?>>\\s*stream\\r?\\n", Pattern.DOTALL);
+
+    // Inflated streams larger than this are not searched (page trees are small)
+    private static final int MAX_INFLATED_STREAM = 4 * 1024 * 1024;
+
+    private PdfPageCounter() {
+    }
+
+    public static Integer countPages(byte[] pdf) {
+        // ISO-8859-1 maps every byte to one char, so offsets line up with the bytes
+        String raw = new String(pdf, StandardCharsets.ISO_8859_1);
+        if (!raw.startsWith("%PDF")) {
+            return null;
+        }
+
+        int pages = maxPagesCount(raw);
+        int pageObjects = count(PAGE_OBJECT, raw);
+
+        if (pages == 0) {
+            Matcher stream = FLATE_STREAM.matcher(raw);
+            while (stream.find()) {
+                int start = stream.end();
+                int end = raw.indexOf("endstream", start);
+                if (end < 0) {
+                    break;
+                }
+                String inflated = inflate(pdf, start, end - start);
+                if (inflated != null) {
+                    pages = Math.max(pages, maxPagesCount(inflated));
+                    pageObjects += count(PAGE_OBJECT, inflated);
+                }
+            }
+        }
+
+        if (pages > 0) {
+            return pages;
+        }
+        return pageObjects > 0 ? pageObjects : null;
+    }
+
+    /**
+     * The root of the page tree has the largest /Count of all /Pages nodes
+     */
+    private static int maxPagesCount(String text) {
+        int max = 0;
+        Matcher dict = PAGES_DICT.matcher(text);
+        while (dict.find()) {
+            Matcher count = COUNT.matcher(dict.group(1));
+            if (count.find()) {
+                try {
+                    max = Math.max(max, Integer.parseInt(count.group(1)));
+                } catch (NumberFormatException e) {
+                    // Absurdly large number; not a real page count
+                }
+            }
+        }
+        return max;
+    }
+
+    private static int count(Pattern pattern, String text) {
+        int count = 0;
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static String inflate(byte[] data, int offset, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, length);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished() && out.size() < MAX_INFLATED_STREAM) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.size() < MAX_INFLATED_STREAM ? out.toString(StandardCharsets.ISO_8859_1) : null;
+        } catch (DataFormatException e) {
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+}
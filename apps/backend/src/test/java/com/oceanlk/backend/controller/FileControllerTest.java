@@ -0,0 +1,202 @@
+package com.oceanlk.backend.controller;
+
+import com.oceanlk.backend.dto.StoredFileMetadata;
+import com.oceanlk.backend.service.FileStorageService;
+import com.oceanlk.backend.service.ImageDerivativeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class FileControllerTest {
+
+    private static final String ETAG = "\"abc123\"";
+    private static final ZonedDateTime LAST_MODIFIED = ZonedDateTime.of(2024, 3, 1, 10, 0, 0, 0,
+            ZoneId.of("GMT"));
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private ImageDerivativeService imageDerivativeService;
+
+    private FileController fileController;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        fileController = new FileController(fileStorageService, imageDerivativeService);
+        ReflectionTestUtils.setField(fileController, "cacheMaxAge", Duration.ofDays(30));
+        mockMvc = MockMvcBuilders.standaloneSetup(fileController).build();
+    }
+
+    private Optional<List<FileController.ByteRange>> resolve(String range, String ifRange) {
+        HttpHeaders headers = new HttpHeaders();
+        if (range != null) {
+            headers.set(HttpHeaders.RANGE, range);
+        }
+        if (ifRange != null) {
+            headers.set(HttpHeaders.IF_RANGE, ifRange);
+        }
+        return fileController.resolveRanges(headers, 100, ETAG, LAST_MODIFIED);
+    }
+
+    private static Optional<List<FileController.ByteRange>> ranges(FileController.ByteRange... ranges) {
+        return Optional.of(List.of(ranges));
+    }
+
+    private static FileController.ByteRange range(long start, long end) {
+        return new FileController.ByteRange(start, end);
+    }
+
+    @Test
+    void testResolveRanges_NoHeaderMeansWholeFile() {
+        assertEquals(ranges(), resolve(null, null));
+        assertEquals(ranges(), resolve("  ", null));
+    }
+
+    @Test
+    void testResolveRanges_SingleAndOpenEndedRanges() {
+        assertEquals(ranges(range(0, 9)), resolve("bytes=0-9", null));
+        assertEquals(ranges(range(90, 99)), resolve("bytes=90-", null));
+        assertEquals(ranges(range(80, 99)), resolve("bytes=-20", null));
+        // An end past the file is clamped to the last byte
+        assertEquals(ranges(range(95, 99)), resolve("bytes=95-500", null));
+    }
+
+    @Test
+    void testResolveRanges_MergesOverlappingAndAdjacentRanges() {
+        assertEquals(ranges(range(0, 29)), resolve("bytes=10-29,0-9", null));
+        assertEquals(ranges(range(0, 14)), resolve("bytes=0-9,5-14", null));
+        assertEquals(ranges(range(0, 4), range(10, 14)), resolve("bytes=10-14,0-4", null));
+    }
+
+    @Test
+    void testResolveRanges_RangesLargerThanFileMeanWholeFile() {
+        assertEquals(ranges(), resolve("bytes=0-,0-", null));
+    }
+
+    @Test
+    void testResolveRanges_SkipsUnsatisfiableRanges() {
+        assertEquals(ranges(range(0, 9)), resolve("bytes=0-9,200-300", null));
+        assertEquals(Optional.empty(), resolve("bytes=100-", null));
+        assertEquals(Optional.empty(), resolve("bytes=200-300,150-", null));
+    }
+
+    @Test
+    void testResolveRanges_IgnoresUnparseableHeader() {
+        assertEquals(ranges(), resolve("bytes=abc", null));
+        assertEquals(ranges(), resolve("items=0-9", null));
+    }
+
+    @Test
+    void testResolveRanges_IfRangeMustMatchExactly() {
+        String date = LAST_MODIFIED.format(DateTimeFormatter.RFC_1123_DATE_TIME);
+
+        assertEquals(ranges(range(0, 9)), resolve("bytes=0-9", ETAG));
+        assertEquals(ranges(range(0, 9)), resolve("bytes=0-9", date));
+        assertEquals(ranges(), resolve("bytes=0-9", "\"other\""));
+        assertEquals(ranges(), resolve("bytes=0-9", "W/" + ETAG));
+        assertEquals(ranges(), resolve("bytes=0-9", LAST_MODIFIED.minusDays(1)
+                .format(DateTimeFormatter.RFC_1123_DATE_TIME)));
+    }
+
+    @Test
+    void testByteRange_ContentRange() {
+        assertEquals(10, range(0, 9).length());
+        assertEquals("bytes 0-9/100", range(0, 9).contentRange(100));
+    }
+
+    @Test
+    void testGetFile_UnsatisfiableRangeReturns416() throws Exception {
+        when(fileStorageService.getFileMetadata("f1")).thenReturn(metadata("f1", 100));
+
+        mockMvc.perform(get("/api/files/f1").header(HttpHeaders.RANGE, "bytes=500-600"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"));
+
+        verify(fileStorageService, never()).streamFile(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void testGetFile_HeadWithRangeReturnsPartialHeadersOnly() throws Exception {
+        when(fileStorageService.getFileMetadata("f1")).thenReturn(metadata("f1", 100));
+
+        mockMvc.perform(head("/api/files/f1").header(HttpHeaders.RANGE, "bytes=0-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-9/100"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10));
+
+        verify(fileStorageService, never()).streamFile(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void testGetFile_UnknownIdReturns404() throws Exception {
+        mockMvc.perform(get("/api/files/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * A file stored before content hashing, so it is served from its ID URL
+     */
+    private static StoredFileMetadata metadata(String id, long size) {
+        return new StoredFileMetadata() {
+            public String getId() {
+                return id;
+            }
+
+            public String getFilename() {
+                return "report.pdf";
+            }
+
+            public String getContentType() {
+                return "application/pdf";
+            }
+
+            public String getGroupName() {
+                return "documents";
+            }
+
+            public Long getSize() {
+                return size;
+            }
+
+            public String getContentHash() {
+                return null;
+            }
+
+            public LocalDateTime getCreatedAt() {
+                return LocalDateTime.of(2024, 3, 1, 10, 0);
+            }
+
+            public String getStorageBackend() {
+                return "POSTGRES";
+            }
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package com.oceanlk.backend.service;
+
+import com.oceanlk.backend.repository.MediaItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkUploadServiceTest {
+
+    private static final byte[] PNG = {
+            (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R' };
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private MediaItemRepository mediaRepository;
+
+    @Mock
+    private PendingChangeService pendingChangeService;
+
+    @Mock
+    private AuditLogService auditLogService;
+
+    private BulkUploadService bulkUploadService;
+
+    @BeforeEach
+    void setUp() {
+        bulkUploadService = new BulkUploadService(fileStorageService, mediaRepository, pendingChangeService,
+                auditLogService, 2);
+        ReflectionTestUtils.setField(bulkUploadService, "maxFileSize", 1024L);
+        ReflectionTestUtils.setField(bulkUploadService, "maxFiles", 2);
+    }
+
+    private static MockMultipartFile zip(String... names) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (String name : names) {
+                out.putNextEntry(new ZipEntry(name));
+                out.write(PNG);
+                out.closeEntry();
+            }
+        }
+        return new MockMultipartFile("file", "album.zip", "application/zip", bytes.toByteArray());
+    }
+
+    private void givenStoredIds() throws IOException {
+        AtomicInteger ids = new AtomicInteger();
+        when(fileStorageService.storeStream(any(), anyLong(), anyString(), eq("image/png"), eq("gallery")))
+                .thenAnswer(invocation -> "id-" + ids.incrementAndGet());
+        when(fileStorageService.getFileUrl(anyString()))
+                .thenAnswer(invocation -> "/api/files/" + invocation.getArgument(0));
+    }
+
+    @Test
+    void testUploadZip_StoresEveryImageAndSkipsOtherEntries() throws Exception {
+        givenStoredIds();
+
+        List<BulkUploadService.UploadedFile> results = bulkUploadService.uploadZip(
+                zip("photos/a.png", "__MACOSX/photos/._a.png", "notes.txt"), "gallery");
+
+        assertEquals(2, results.size());
+        assertEquals("a.png", results.get(0).filename());
+        assertNotNull(results.get(0).url());
+        assertEquals("Unsupported file type", results.get(1).error());
+        verify(fileStorageService, never()).deleteFile(anyString());
+    }
+
+    @Test
+    void testUploadZip_DeletesStoredImagesWhenArchiveHasTooManyFiles() throws Exception {
+        givenStoredIds();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bulkUploadService.uploadZip(zip("a.png", "b.png", "c.png"), "gallery"));
+
+        verify(fileStorageService).deleteFile("/api/files/id-1");
+        verify(fileStorageService).deleteFile("/api/files/id-2");
+    }
+
+    @Test
+    void testUploadZip_DeletesStoredImagesWhenArchiveIsTruncated() throws Exception {
+        givenStoredIds();
+        byte[] complete = zip("a.png", "b.png").getBytes();
+        // Cut inside the second entry's data
+        byte[] truncated = Arrays.copyOf(complete, complete.length - 150);
+
+        assertThrows(IOException.class, () -> bulkUploadService.uploadZip(
+                new MockMultipartFile("file", "album.zip", "application/zip", truncated), "gallery"));
+
+        verify(fileStorageService).deleteFile("/api/files/id-1");
+    }
+}
@@ -0,0 +1,240 @@
+package com.oceanlk.backend.service;
+
+import com.oceanlk.backend.dto.StoredFileMetadata;
+import com.oceanlk.backend.model.StoredFile;
+import com.oceanlk.backend.repository.StoredFileRepository;
+import com.oceanlk.backend.service.storage.BlobStore;
+import com.oceanlk.backend.service.storage.FileStoredEvent;
+import com.oceanlk.backend.service.storage.HotFileCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class FileStorageServiceTest {
+
+    private static final byte[] PNG = {
+            (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R' };
+
+    @Mock
+    private StoredFileRepository storedFileRepository;
+
+    @Mock
+    private HotFileCache hotFileCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private InMemoryBlobStore blobStore;
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new InMemoryBlobStore();
+        fileStorageService = new FileStorageService(storedFileRepository, List.of(blobStore), hotFileCache,
+                eventPublisher, "filesystem");
+    }
+
+    private void givenNewRowId(String id) {
+        when(storedFileRepository.saveAndFlush(any(StoredFile.class))).thenAnswer(invocation -> {
+            StoredFile storedFile = invocation.getArgument(0);
+            storedFile.setId(id);
+            return storedFile;
+        });
+    }
+
+    private String upload() throws IOException {
+        return fileStorageService.storeStream(new ByteArrayInputStream(PNG), PNG.length, "logo.png", "image/png",
+                "logos");
+    }
+
+    @Test
+    void testStoreStream_NewContentKeepsUpload() throws IOException {
+        givenNewRowId("new");
+        when(storedFileRepository.findIdByContentHash(anyString())).thenReturn(Optional.empty());
+
+        assertEquals("new", upload());
+
+        verify(storedFileRepository).setContentHash("new", sha256(PNG));
+        verify(eventPublisher).publishEvent(any(FileStoredEvent.class));
+        assertTrue(blobStore.blobs.containsKey("new"));
+    }
+
+    @Test
+    void testStoreStream_DuplicateReturnsExistingFile() throws IOException {
+        givenNewRowId("new");
+        when(storedFileRepository.findIdByContentHash(sha256(PNG))).thenReturn(Optional.of("existing"));
+        when(storedFileRepository.incrementReferenceCount("existing")).thenReturn(1);
+
+        assertEquals("existing", upload());
+
+        verify(storedFileRepository).deleteById("new");
+        verify(storedFileRepository, never()).setContentHash(anyString(), anyString());
+        assertFalse(blobStore.blobs.containsKey("new"));
+        assertEquals(List.of("new"), blobStore.deleted);
+    }
+
+    @Test
+    void testStoreStream_KeepsUploadWhenExistingFileWasDeletedMeanwhile() throws IOException {
+        givenNewRowId("new");
+        when(storedFileRepository.findIdByContentHash(sha256(PNG))).thenReturn(Optional.of("existing"));
+        // The last reference to the existing file was released between the lookup and the increment
+        when(storedFileRepository.incrementReferenceCount("existing")).thenReturn(0);
+
+        assertEquals("new", upload());
+
+        verify(storedFileRepository, never()).deleteById(anyString());
+        verify(storedFileRepository).setContentHash("new", sha256(PNG));
+        assertTrue(blobStore.blobs.containsKey("new"));
+    }
+
+    @Test
+    void testStoreStream_MislabelledUploadIsDiscarded() {
+        givenNewRowId("new");
+        byte[] notPng = "plain text, not an image".getBytes();
+
+        assertThrows(IOException.class, () -> fileStorageService.storeStream(new ByteArrayInputStream(notPng),
+                notPng.length, "logo.png", "image/png", "logos"));
+
+        verify(storedFileRepository).deleteById("new");
+        verify(storedFileRepository, never()).findIdByContentHash(anyString());
+    }
+
+    @Test
+    void testDeleteFileRaw_RemovesLastReference() {
+        when(storedFileRepository.decrementReferenceCount("f1")).thenReturn(0);
+        when(storedFileRepository.findStorageBackendById("f1")).thenReturn(Optional.of(InMemoryBlobStore.BACKEND));
+        when(storedFileRepository.deleteIfUnreferenced("f1")).thenReturn(1);
+        blobStore.blobs.put("f1", PNG);
+
+        fileStorageService.deleteFileRaw("f1");
+
+        verify(hotFileCache).invalidate("f1");
+        assertEquals(List.of("f1"), blobStore.deleted);
+    }
+
+    @Test
+    void testDeleteFileRaw_KeepsFileStillReferenced() {
+        when(storedFileRepository.decrementReferenceCount("f1")).thenReturn(1);
+
+        fileStorageService.deleteFileRaw("f1");
+
+        verify(storedFileRepository, never()).deleteIfUnreferenced(anyString());
+        verify(hotFileCache, never()).invalidate(anyString());
+        assertTrue(blobStore.deleted.isEmpty());
+    }
+
+    @Test
+    void testDeleteFileRaw_KeepsFileReusedByConcurrentUpload() {
+        when(storedFileRepository.decrementReferenceCount("f1")).thenReturn(0);
+        when(storedFileRepository.findStorageBackendById("f1")).thenReturn(Optional.of(InMemoryBlobStore.BACKEND));
+        // A duplicate upload bumped the count back up before the delete ran
+        when(storedFileRepository.deleteIfUnreferenced("f1")).thenReturn(0);
+
+        fileStorageService.deleteFileRaw("f1");
+
+        verify(hotFileCache, never()).invalidate(anyString());
+        assertTrue(blobStore.deleted.isEmpty());
+    }
+
+    @Test
+    void testMoveReference_ReleasesOldRowOnceNewRowIsReferenced() {
+        when(storedFileRepository.incrementReferenceCount("canonical")).thenReturn(1);
+        when(storedFileRepository.decrementReferenceCount("copy")).thenReturn(0);
+        when(storedFileRepository.findStorageBackendById("copy")).thenReturn(Optional.of(InMemoryBlobStore.BACKEND));
+        when(storedFileRepository.deleteIfUnreferenced("copy")).thenReturn(1);
+
+        assertTrue(fileStorageService.moveReference("copy", "canonical"));
+
+        assertEquals(List.of("copy"), blobStore.deleted);
+    }
+
+    @Test
+    void testMoveReference_KeepsOldRowWhenNewRowIsGone() {
+        when(storedFileRepository.incrementReferenceCount("canonical")).thenReturn(0);
+
+        assertFalse(fileStorageService.moveReference("copy", "canonical"));
+
+        verify(storedFileRepository, never()).decrementReferenceCount(anyString());
+    }
+
+    @Test
+    void testGetFileMetadataByHash_QueriesOnlyOnCacheMiss() {
+        StoredFileMetadata metadata = mock(StoredFileMetadata.class);
+        when(storedFileRepository.findMetadataByContentHash("abc")).thenReturn(Optional.of(metadata));
+
+        assertSame(metadata, fileStorageService.getFileMetadataByHash("abc"));
+        verify(hotFileCache).putMetadataByHash(metadata);
+
+        when(hotFileCache.getMetadataByHash("abc")).thenReturn(metadata);
+        assertSame(metadata, fileStorageService.getFileMetadataByHash("abc"));
+        verify(storedFileRepository, times(1)).findMetadataByContentHash("abc");
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class InMemoryBlobStore implements BlobStore {
+
+        static final String BACKEND = "FILESYSTEM";
+
+        final Map<String, byte[]> blobs = new HashMap<>();
+        final List<String> deleted = new ArrayList<>();
+
+        @Override
+        public String getBackend() {
+            return BACKEND;
+        }
+
+        @Override
+        public void write(String id, InputStream data, long length) throws IOException {
+            blobs.put(id, data.readAllBytes());
+        }
+
+        @Override
+        public void copyTo(String id, long offset, long length, OutputStream out) throws IOException {
+            out.write(blobs.get(id), (int) offset, (int) length);
+        }
+
+        @Override
+        public InputStream openStream(String id) {
+            return new ByteArrayInputStream(blobs.get(id));
+        }
+
+        @Override
+        public void delete(String id) {
+            blobs.remove(id);
+            deleted.add(id);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.oceanlk.backend.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PublicContentCacheTest {
+
+    @Mock
+    private PublicContentRedisStore redisStore;
+
+    @Mock
+    private PostgresInvalidationBus invalidationBus;
+
+    private PublicContentCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PublicContentCache(redisStore, invalidationBus, new ObjectMapper(), new SimpleMeterRegistry(),
+                true, 16, Duration.ofHours(1));
+        loads = new AtomicInteger();
+    }
+
+    private Supplier<String> loader(String value) {
+        return () -> {
+            loads.incrementAndGet();
+            return value;
+        };
+    }
+
+    @Test
+    void testGet_LoadsOnceThenServesFromCache() {
+        assertEquals("v1", cache.get(PublicContentCache.PARTNERS, "all", String.class, loader("v1")));
+        assertEquals("v1", cache.get(PublicContentCache.PARTNERS, "all", String.class, loader("v2")));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testEvict_NextGetReloads() {
+        cache.get(PublicContentCache.PARTNERS, "all", String.class, loader("v1"));
+
+        cache.evict(PublicContentCache.PARTNERS, "all");
+
+        assertEquals("v2", cache.get(PublicContentCache.PARTNERS, "all", String.class, loader("v2")));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testEvictAll_KeepsOtherCaches() {
+        cache.get(PublicContentCache.PARTNERS, "a", String.class, loader("p"));
+        cache.get(PublicContentCache.COMPANIES, "a", String.class, loader("c"));
+
+        cache.evictAll(PublicContentCache.PARTNERS);
+        cache.get(PublicContentCache.PARTNERS, "a", String.class, loader("p"));
+        cache.get(PublicContentCache.COMPANIES, "a", String.class, loader("c"));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testGet_DoesNotStoreLoadThatOverlappedAnEviction() {
+        String first = cache.get(PublicContentCache.COMPANIES, "all", String.class, () -> {
+            loads.incrementAndGet();
+            // A save commits while the loader is reading the old rows
+            cache.evict(PublicContentCache.COMPANIES, "all");
+            return "stale";
+        });
+        String second = cache.get(PublicContentCache.COMPANIES, "all", String.class, loader("fresh"));
+
+        assertEquals("stale", first);
+        assertEquals("fresh", second);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRemoteEviction_DropsLocalEntries() {
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(redisStore).subscribe(listener.capture());
+        cache.get(PublicContentCache.PARTNERS, "all", String.class, loader("v1"));
+        cache.get(PublicContentCache.LEADERSHIP, "all", String.class, loader("v1"));
+
+        listener.getValue().accept("partners\tall\nunknown-cache");
+        cache.get(PublicContentCache.PARTNERS, "all", String.class, loader("v2"));
+        cache.get(PublicContentCache.LEADERSHIP, "all", String.class, loader("v2"));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testEvictCollection_PublishesOneMessage() {
+        cache.evict(List.of(
+                new PublicContentCache.Eviction(PublicContentCache.COMPANIES, "all"),
+                new PublicContentCache.Eviction(PublicContentCache.COMPANIES, "c1"),
+                new PublicContentCache.Eviction(PublicContentCache.PARTNERS, null)));
+
+        verify(invalidationBus, times(1)).publish("companies\tall\ncompanies\tc1\npartners");
+        verify(redisStore, times(1)).evict(any(), eq("companies\tall\ncompanies\tc1\npartners"));
+    }
+
+    @Test
+    void testEncodeDecode_RoundTrip() {
+        List<PublicContentCache.Eviction> evictions = List.of(
+                new PublicContentCache.Eviction(PublicContentCache.PAGE_CONTENT, "HOME/HERO"),
+                new PublicContentCache.Eviction(PublicContentCache.METRICS, null));
+
+        assertEquals(evictions, PublicContentCache.decode(PublicContentCache.encode(evictions)));
+    }
+
+    @Test
+    void testEncode_FallsBackToWholeCachesWhenTooLong() {
+        List<PublicContentCache.Eviction> evictions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            evictions.add(new PublicContentCache.Eviction(
+                    i % 2 == 0 ? PublicContentCache.COMPANIES : PublicContentCache.PARTNERS, "id-" + i));
+        }
+
+        assertEquals(List.of(
+                new PublicContentCache.Eviction(PublicContentCache.COMPANIES, null),
+                new PublicContentCache.Eviction(PublicContentCache.PARTNERS, null)),
+                PublicContentCache.decode(PublicContentCache.encode(evictions)));
+    }
+
+    @Test
+    void testGet_UsesRedisEntryOfCurrentVersion() {
+        long now = System.currentTimeMillis();
+        when(redisStore.get(PublicContentCache.METRICS, "all")).thenReturn(new PublicContentRedisStore.Lookup(
+                "{\"loadedAt\":" + now + ",\"version\":4,\"value\":\"from-redis\"}", 4));
+
+        assertEquals("from-redis", cache.get(PublicContentCache.METRICS, "all", String.class, loader("db")));
+        assertEquals(0, loads.get());
+        verify(redisStore, never()).put(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void testGet_IgnoresRedisEntryOfOlderVersion() {
+        long now = System.currentTimeMillis();
+        when(redisStore.get(PublicContentCache.METRICS, "all")).thenReturn(new PublicContentRedisStore.Lookup(
+                "{\"loadedAt\":" + now + ",\"version\":3,\"value\":\"stale\"}", 4));
+
+        assertEquals("db", cache.get(PublicContentCache.METRICS, "all", String.class, loader("db")));
+        assertEquals(1, loads.get());
+        verify(redisStore).put(eq(PublicContentCache.METRICS), eq("all"), contains("\"version\":4"));
+    }
+
+    @Test
+    void testGet_DisabledAlwaysLoads() {
+        PublicContentCache disabled = new PublicContentCache(redisStore, invalidationBus, new ObjectMapper(),
+                new SimpleMeterRegistry(), false, 16, Duration.ofHours(1));
+
+        disabled.get(PublicContentCache.PARTNERS, "all", String.class, loader("v1"));
+        disabled.get(PublicContentCache.PARTNERS, "all", String.class, loader("v1"));
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,69 @@
+package com.oceanlk.backend.service.search;
+
+import com.oceanlk.backend.dto.SearchDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrefixTrieTest {
+
+    private PrefixTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = PrefixTrie.build(List.of(
+                suggestion("Ocean Holdings"),
+                suggestion("Ocean"),
+                suggestion("Oceanic Foods"),
+                suggestion("Blue Ocean Apparel"),
+                suggestion("Café Ceylon")));
+    }
+
+    private static SearchDTO.Suggestion suggestion(String text) {
+        return new SearchDTO.Suggestion(text, "company", text.toLowerCase(), "/companies/" + text.toLowerCase());
+    }
+
+    private List<String> complete(String prefix, int limit) {
+        return trie.complete(prefix, limit).stream().map(SearchDTO.Suggestion::getText).toList();
+    }
+
+    @Test
+    void testComplete_PrefersFirstWordThenShorterTitles() {
+        assertEquals(List.of("Ocean", "Oceanic Foods", "Ocean Holdings", "Blue Ocean Apparel"), complete("oce", 10));
+    }
+
+    @Test
+    void testComplete_MatchesLaterWords() {
+        assertEquals(List.of("Ocean Holdings"), complete("hold", 10));
+        assertEquals(List.of("Blue Ocean Apparel"), complete("app", 10));
+    }
+
+    @Test
+    void testComplete_FoldsCaseAccentsAndPunctuation() {
+        assertEquals(List.of("Café Ceylon"), complete("cafe", 10));
+        assertEquals(List.of("Café Ceylon"), complete("CAFÉ", 10));
+        assertEquals(List.of("Café Ceylon"), complete("café--ceyl", 10));
+    }
+
+    @Test
+    void testComplete_TrailingSpacePrefersMultiWordTitles() {
+        assertEquals(List.of("Ocean Holdings", "Blue Ocean Apparel"), complete("ocean ", 10));
+        // Without multi-word titles, the word alone still completes
+        PrefixTrie single = PrefixTrie.build(List.of(suggestion("Ocean")));
+        assertEquals(List.of("Ocean"),
+                single.complete("ocean ", 10).stream().map(SearchDTO.Suggestion::getText).toList());
+    }
+
+    @Test
+    void testComplete_HonoursLimitAndUnknownPrefixes() {
+        assertEquals(2, complete("oce", 2).size());
+        assertTrue(complete("oce", 0).isEmpty());
+        assertTrue(complete("xyz", 10).isEmpty());
+        assertTrue(complete("", 10).isEmpty());
+        assertTrue(complete("  ", 10).isEmpty());
+        assertTrue(PrefixTrie.empty().complete("oce", 10).isEmpty());
+    }
+}
@@ -0,0 +1,55 @@
+package com.oceanlk.backend.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchCursorTest {
+
+    @Test
+    void testDecode_RoundTripsEncodedCursor() {
+        SearchCursor cursor = new SearchCursor(3.141592653589793, "b1c2-d3");
+
+        assertEquals(cursor, SearchCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void testDecode_KeepsSeparatorsInsideId() {
+        SearchCursor cursor = new SearchCursor(0.5, "a:b:c");
+
+        assertEquals("a:b:c", SearchCursor.decode(cursor.encode()).id());
+    }
+
+    @Test
+    void testEncode_IsUrlSafe() {
+        String encoded = new SearchCursor(1.0E-7, "??>>id").encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void testDecode_RejectsForeignInput() {
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encode("no-separator")));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encode("abc:id")));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encode("1.0:")));
+    }
+
+    @Test
+    void testIsBefore_OrdersByScoreThenId() {
+        SearchCursor cursor = new SearchCursor(2.0, "m");
+
+        assertTrue(cursor.isBefore(1.0, "a"));
+        assertTrue(cursor.isBefore(2.0, "n"));
+        assertFalse(cursor.isBefore(2.0, "m"));
+        assertFalse(cursor.isBefore(2.0, "a"));
+        assertFalse(cursor.isBefore(3.0, "z"));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
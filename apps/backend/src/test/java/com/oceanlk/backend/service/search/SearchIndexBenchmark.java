@@ -0,0 +1,93 @@
+package com.oceanlk.backend.service.search;
+
+import com.oceanlk.backend.dto.SearchDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of {@link SearchIndex} over synthetic documents. Not a test:
+ * run it with {@code mvn test-compile exec:java
+ * -Dexec.mainClass=com.oceanlk.backend.service.search.SearchIndexBenchmark
+ * -Dexec.classpathScope=test} or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "ocean", "holdings", "logistics", "shipping", "freight", "marine", "engineering", "colombo",
+            "hospitality", "energy", "solar", "recruitment", "careers", "manager", "sustainability", "community",
+            "annual", "report", "launch", "partnership", "investment", "technology", "services", "award" };
+
+    @Param({ "1000", "10000" })
+    private int documents;
+
+    private SearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<SearchIndex.Document> loaded = new ArrayList<>(documents);
+        for (int i = 0; i < documents; i++) {
+            String id = String.valueOf(i);
+            String title = words(random, 3) + " " + i;
+            loaded.add(new SearchIndex.Document(new SearchIndex.DocKey("companies", id),
+                    new SearchDTO.SearchResultItem("company", id, title, "", "/companies/" + id, null, null),
+                    title, List.of(words(random, 40)), Map.of()));
+        }
+        index = new SearchIndex();
+        index.finishRebuild(loaded);
+    }
+
+    @Benchmark
+    public List<SearchDTO.SearchResultItem> exact() {
+        return index.search("ocean logistics", "companies", 5);
+    }
+
+    @Benchmark
+    public List<SearchDTO.SearchResultItem> prefix() {
+        return index.search("sustain", "companies", 5);
+    }
+
+    @Benchmark
+    public List<SearchDTO.SearchResultItem> typo() {
+        return index.search("logistcs", "companies", 5);
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SearchIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,175 @@
+package com.oceanlk.backend.service.search;
+
+import com.oceanlk.backend.dto.SearchDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex();
+    }
+
+    private static SearchIndex.Document document(String category, String id, String title, String body,
+            Map<String, String> facets) {
+        SearchDTO.SearchResultItem item = new SearchDTO.SearchResultItem(category, id, title, body,
+                "/" + category + "/" + id, null, null);
+        return new SearchIndex.Document(new SearchIndex.DocKey(category, id), item, title, List.of(body), facets);
+    }
+
+    private static SearchIndex.Document company(String id, String title, String body) {
+        return document("companies", id, title, body, Map.of());
+    }
+
+    private List<String> searchIds(String query) {
+        return index.search(query, "companies", 10).stream().map(SearchDTO.SearchResultItem::getId).toList();
+    }
+
+    @Test
+    void testSearch_RanksTitleMatchAboveBodyMatch() {
+        index.put(company("c1", "Ceylon Tea", "Exports tea grown near the ocean"));
+        index.put(company("c2", "Ocean Holdings", "Investment group"));
+        index.put(company("c3", "Apparel", "Garments"));
+
+        assertEquals(List.of("c2", "c1"), searchIds("ocean"));
+    }
+
+    @Test
+    void testSearch_RanksShorterDocumentFirstForEqualFrequency() {
+        index.put(company("long", "Alpha", "ocean freight shipping logistics warehousing customs clearance"));
+        index.put(company("short", "Beta", "ocean freight"));
+
+        assertEquals(List.of("short", "long"), searchIds("ocean"));
+    }
+
+    @Test
+    void testSearch_MatchesPrefixAndRanksExactWordFirst() {
+        index.put(company("c1", "Oceanic Foods", "Seafood"));
+        index.put(company("c2", "Ocean Traders", "Trading"));
+
+        assertEquals(List.of("c2", "c1"), searchIds("ocean"));
+        // "ocean" is one edit from "oceani", but a prefix match scores above a typo
+        assertEquals(List.of("c1", "c2"), searchIds("oceani"));
+    }
+
+    @Test
+    void testSearch_RequiresEveryToken() {
+        index.put(company("c1", "Ocean Holdings", "Investment group"));
+        index.put(company("c2", "Ocean Traders", "Trading"));
+
+        assertEquals(List.of("c1"), searchIds("ocean invest"));
+        assertTrue(searchIds("ocean apparel").isEmpty());
+    }
+
+    @Test
+    void testSearch_MatchesTyposInShortQueries() {
+        index.put(company("c1", "Ocean Holdings", "Investment group"));
+
+        // Transposition, substitution, and two edits in a token of eight or more letters
+        assertEquals(List.of("c1"), searchIds("ocaen"));
+        assertEquals(List.of("c1"), searchIds("ocxan"));
+        assertEquals(List.of("c1"), searchIds("investmnet"));
+        // Tokens shorter than four letters and queries of more than three tokens are not fuzzy
+        assertTrue(searchIds("grp").isEmpty());
+        assertTrue(searchIds("ocaen holdings investment group").isEmpty());
+    }
+
+    @Test
+    void testSearch_IgnoresCaseAndAccents() {
+        index.put(company("c1", "Café Ceylon", "Coffee"));
+
+        assertEquals(List.of("c1"), searchIds("CAFE"));
+        assertEquals(List.of("c1"), searchIds("café"));
+    }
+
+    @Test
+    void testFinishRebuild_ReplaysChangesMadeWhileLoading() {
+        index.put(company("a", "Original Name", "First"));
+        index.put(company("b", "Removed Company", "Second"));
+
+        index.beginRebuild();
+        List<SearchIndex.Document> loaded = List.of(
+                company("a", "Original Name", "First"),
+                company("b", "Removed Company", "Second"));
+        // Saved and deleted after the loader read its rows
+        index.put(company("a", "Renamed Company", "First"));
+        index.remove(new SearchIndex.DocKey("companies", "b"));
+        index.put(company("c", "New Company", "Third"));
+        index.finishRebuild(loaded);
+
+        assertEquals(2, index.size());
+        assertEquals(List.of("a"), searchIds("renamed"));
+        assertTrue(searchIds("original").isEmpty());
+        assertTrue(searchIds("removed").isEmpty());
+        assertEquals(List.of("c"), searchIds("new"));
+    }
+
+    @Test
+    void testFinishRebuild_WithoutChangesUsesLoadedDocuments() {
+        index.put(company("old", "Stale Entry", "Gone"));
+
+        index.beginRebuild();
+        index.finishRebuild(List.of(company("a", "Fresh Entry", "Loaded")));
+
+        assertEquals(1, index.size());
+        assertTrue(searchIds("stale").isEmpty());
+        assertEquals(List.of("a"), searchIds("fresh"));
+    }
+
+    @Test
+    void testSearch_CountsEachFacetOverMatchesPassingTheOtherFilters() {
+        index.put(document("jobs", "j1", "Software Engineer", "", Map.of("location", "Colombo", "type", "FULL_TIME")));
+        index.put(document("jobs", "j2", "Civil Engineer", "", Map.of("location", "Colombo", "type", "PART_TIME")));
+        index.put(document("jobs", "j3", "Marine Engineer", "", Map.of("location", "Galle", "type", "FULL_TIME")));
+        index.put(document("jobs", "j4", "Accountant", "", Map.of("location", "Galle", "type", "FULL_TIME")));
+
+        SearchIndex.Page page = index.search("engineer", "jobs", Map.of("location", "Colombo"), null, 10);
+
+        assertEquals(2, page.total());
+        assertEquals(List.of("j1", "j2"), page.hits().stream().map(SearchIndex.Hit::id).sorted().toList());
+        // Galle stays visible so the filter can be switched; types only count Colombo matches
+        assertEquals(Map.of("Colombo", 2, "Galle", 1), page.facets().get("location"));
+        assertEquals(Map.of("FULL_TIME", 1, "PART_TIME", 1), page.facets().get("type"));
+    }
+
+    @Test
+    void testSearch_PagesWithCursorWithoutGapsOrRepeats() {
+        for (int i = 0; i < 5; i++) {
+            index.put(company("c" + i, "Ocean Company " + i, "Shipping"));
+        }
+        List<String> all = index.search("ocean", "companies", Map.of(), null, 10).hits().stream()
+                .map(SearchIndex.Hit::id).toList();
+
+        List<String> paged = new ArrayList<>();
+        SearchCursor cursor = null;
+        SearchIndex.Page page;
+        do {
+            page = index.search("ocean", "companies", Map.of(), cursor, 2);
+            page.hits().forEach(hit -> paged.add(hit.id()));
+            if (!page.hits().isEmpty()) {
+                SearchIndex.Hit last = page.hits().get(page.hits().size() - 1);
+                cursor = SearchCursor.decode(new SearchCursor(last.score(), last.id()).encode());
+            }
+            assertEquals(5, page.total());
+        } while (!page.hits().isEmpty());
+
+        assertEquals(5, all.size());
+        assertEquals(all, paged);
+    }
+
+    @Test
+    void testEditDistance_CountsTranspositionAsOneEdit() {
+        assertEquals(1, SearchIndex.editDistance("ocean", "ocaen", 2));
+        assertEquals(1, SearchIndex.editDistance("ocean", "oceans", 2));
+        assertEquals(3, SearchIndex.editDistance("ocean", "river", 2));
+    }
+}
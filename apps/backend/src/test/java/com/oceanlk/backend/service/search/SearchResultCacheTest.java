@@ -0,0 +1,115 @@
+package com.oceanlk.backend.service.search;
+
+import com.oceanlk.backend.dto.SearchDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchResultCacheTest {
+
+    private SearchResultCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SearchResultCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(5));
+        loads = new AtomicInteger();
+    }
+
+    private Supplier<SearchDTO.SearchResponse> loader(String query, String... ids) {
+        return () -> {
+            loads.incrementAndGet();
+            List<SearchDTO.SearchResultItem> items = Arrays.stream(ids)
+                    .map(id -> new SearchDTO.SearchResultItem("company", id, "Title " + id, null, null, null, null))
+                    .toList();
+            return new SearchDTO.SearchResponse(query, Map.of("companies", items), items.size());
+        };
+    }
+
+    private static SearchIndex.Document company(String id, String title) {
+        return new SearchIndex.Document(new SearchIndex.DocKey("companies", id), null, title, List.of(), Map.of());
+    }
+
+    @Test
+    void testGet_SharesEntryBetweenEquivalentQueries() {
+        cache.get("Ocean Holdings", loader("Ocean Holdings", "c1"));
+        SearchDTO.SearchResponse response = cache.get("holdings  OCEAN", loader("holdings  OCEAN", "c1"));
+
+        assertEquals(1, loads.get());
+        assertEquals("holdings  OCEAN", response.getQuery());
+    }
+
+    @Test
+    void testInvalidate_DropsEntriesTheDocumentMatches() {
+        cache.get("ocean", loader("ocean", "c1"));
+
+        cache.invalidate(company("c9", "Ocean Traders"));
+        cache.get("ocean", loader("ocean", "c1", "c9"));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testInvalidate_DropsEntriesListingTheDocument() {
+        cache.get("ocean", loader("ocean", "c1"));
+
+        // Renamed so that it no longer matches, but it is still in the cached results
+        cache.invalidate(company("c1", "Tea Exports"));
+        cache.get("ocean", loader("ocean"));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testInvalidate_KeepsUnrelatedEntries() {
+        cache.get("ocean", loader("ocean", "c1"));
+
+        cache.invalidate(company("c2", "Tea Exports"));
+        cache.get("ocean", loader("ocean", "c1"));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGet_DoesNotStoreLoadThatOverlappedAnInvalidation() {
+        Supplier<SearchDTO.SearchResponse> stale = loader("ocean", "c1");
+        cache.get("ocean", () -> {
+            SearchDTO.SearchResponse response = stale.get();
+            // A save commits while this search is running
+            cache.invalidate(company("c2", "Tea Exports"));
+            return response;
+        });
+        cache.get("ocean", loader("ocean", "c1"));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGet_DoesNotStorePartialResponses() {
+        Supplier<SearchDTO.SearchResponse> partial = () -> {
+            loads.incrementAndGet();
+            return new SearchDTO.SearchResponse("ocean", Map.of(), 0, true, null);
+        };
+        cache.get("ocean", partial);
+        cache.get("ocean", partial);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGet_BypassesCacheForBlankQueries() {
+        cache.get("  ", loader("  "));
+        cache.get("  ", loader("  "));
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,72 @@
+package com.oceanlk.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlurHashTest {
+
+    private static int[] solid(int rgb, int width, int height) {
+        int[] pixels = new int[width * height];
+        Arrays.fill(pixels, rgb);
+        return pixels;
+    }
+
+    @Test
+    void testEncode_SolidBlack() {
+        assertEquals("L00000fQfQfQfQfQfQfQfQfQfQfQ", BlurHash.encode(solid(0x000000, 32, 32), 32, 32, 4, 3));
+    }
+
+    @Test
+    void testEncode_SolidWhite() {
+        // The sampled cosines of odd components do not sum to zero, so a flat image still has some AC
+        assertEquals("L9TSUA~qfQ~q~qoffQoffQfQfQfQ", BlurHash.encode(solid(0xFFFFFF, 32, 32), 32, 32, 4, 3));
+    }
+
+    @Test
+    void testEncode_SingleComponentIsAverageColour() {
+        assertEquals("00TSUA", BlurHash.encode(solid(0xFFFFFF, 8, 8), 8, 8, 1, 1));
+    }
+
+    @Test
+    void testEncode_LengthFollowsComponentCount() {
+        int[] pixels = gradient(16, 16);
+
+        assertEquals(6 + 2 * (4 * 3 - 1), BlurHash.encode(pixels, 16, 16, 4, 3).length());
+        assertEquals(6 + 2 * (9 * 9 - 1), BlurHash.encode(pixels, 16, 16, 9, 9).length());
+    }
+
+    @Test
+    void testEncode_DistinguishesMirroredImages() {
+        int[] pixels = gradient(16, 16);
+        int[] mirrored = new int[pixels.length];
+        for (int y = 0; y < 16; y++) {
+            for (int x = 0; x < 16; x++) {
+                mirrored[y * 16 + x] = pixels[y * 16 + (15 - x)];
+            }
+        }
+
+        String hash = BlurHash.encode(pixels, 16, 16, 4, 3);
+        String mirroredHash = BlurHash.encode(mirrored, 16, 16, 4, 3);
+
+        assertNotEquals(hash, mirroredHash);
+        // Same average colour, so the DC component matches
+        assertEquals(hash.substring(2, 6), mirroredHash.substring(2, 6));
+        assertEquals(hash, BlurHash.encode(pixels, 16, 16, 4, 3));
+    }
+
+    /**
+     * Black on the left to red on the right
+     */
+    private static int[] gradient(int width, int height) {
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                pixels[y * width + x] = (x * 255 / (width - 1)) << 16;
+            }
+        }
+        return pixels;
+    }
+}
@@ -0,0 +1,83 @@
+package com.oceanlk.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfPageCounterTest {
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    void testCountPages_ReadsPageTreeCount() {
+        String pdf = "%PDF-1.4\n"
+                + "1 0 obj\n<< /Type /Catalog /Pages 2 0 R >>\nendobj\n"
+                + "2 0 obj\n<< /Type /Pages /Kids [3 0 R 4 0 R 5 0 R] /Count 3 >>\nendobj\n"
+                + "3 0 obj\n<< /Type /Page /Parent 2 0 R >>\nendobj\n"
+                + "4 0 obj\n<< /Type /Page /Parent 2 0 R >>\nendobj\n"
+                + "5 0 obj\n<< /Type /Page /Parent 2 0 R >>\nendobj\n"
+                + "%%EOF\n";
+
+        assertEquals(3, PdfPageCounter.countPages(bytes(pdf)));
+    }
+
+    @Test
+    void testCountPages_UsesRootOfNestedPageTree() {
+        String pdf = "%PDF-1.7\n"
+                + "2 0 obj\n<</Type/Pages/Kids[6 0 R 7 0 R]/Count 12>>\nendobj\n"
+                + "6 0 obj\n<</Type/Pages/Parent 2 0 R/Kids[]/Count 5>>\nendobj\n"
+                + "7 0 obj\n<</Type/Pages/Parent 2 0 R/Kids[]/Count 7>>\nendobj\n"
+                + "%%EOF\n";
+
+        assertEquals(12, PdfPageCounter.countPages(bytes(pdf)));
+    }
+
+    @Test
+    void testCountPages_SearchesCompressedObjectStreams() {
+        byte[] objects = deflate("2 0 << /Type /Pages /Kids [3 0 R] /Count 42 >>");
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        pdf.writeBytes(bytes("%PDF-1.5\n"
+                + "9 0 obj\n<< /Type /ObjStm /N 1 /First 4 /Filter /FlateDecode /Length " + objects.length + " >>\n"
+                + "stream\n"));
+        pdf.writeBytes(objects);
+        pdf.writeBytes(bytes("\nendstream\nendobj\n%%EOF\n"));
+
+        assertEquals(42, PdfPageCounter.countPages(pdf.toByteArray()));
+    }
+
+    @Test
+    void testCountPages_FallsBackToCountingPageObjects() {
+        String pdf = "%PDF-1.3\n"
+                + "3 0 obj\n<< /Type /Page >>\nendobj\n"
+                + "4 0 obj\n<< /Type/Page >>\nendobj\n"
+                + "%%EOF\n";
+
+        assertEquals(2, PdfPageCounter.countPages(bytes(pdf)));
+    }
+
+    @Test
+    void testCountPages_ReturnsNullForUnrecognisedInput() {
+        assertNull(PdfPageCounter.countPages(bytes("GIF89a not a pdf")));
+        assertNull(PdfPageCounter.countPages(bytes("%PDF-1.4\n% encrypted, nothing readable\n%%EOF\n")));
+        assertNull(PdfPageCounter.countPages(new byte[0]));
+    }
+
+    private static byte[] deflate(String text) {
+        Deflater deflater = new Deflater();
+        deflater.setInput(bytes(text));
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[256];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,103 @@
+package com.oceanlk.backend.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeightedLruCacheTest {
+
+    private WeightedLruCache<String, byte[]> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new WeightedLruCache<>(100, value -> value.length);
+    }
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsedToStayWithinWeight() {
+        cache.put("a", new byte[40]);
+        cache.put("b", new byte[40]);
+        // Reading "a" makes "b" the least recently used
+        cache.get("a");
+        cache.put("c", new byte[40]);
+
+        assertNotNull(cache.peek("a"));
+        assertNull(cache.peek("b"));
+        assertNotNull(cache.peek("c"));
+        assertEquals(80, cache.weight());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void testPut_EvictsAsManyEntriesAsNeeded() {
+        cache.put("a", new byte[30]);
+        cache.put("b", new byte[30]);
+        cache.put("c", new byte[30]);
+        cache.put("d", new byte[90]);
+
+        assertEquals(1, cache.size());
+        assertEquals(90, cache.weight());
+        assertEquals(3, cache.evictionCount());
+    }
+
+    @Test
+    void testPut_RejectsValueHeavierThanWholeCache() {
+        cache.put("a", new byte[50]);
+
+        assertFalse(cache.put("huge", new byte[101]));
+        assertNull(cache.peek("huge"));
+        assertNotNull(cache.peek("a"));
+        assertEquals(50, cache.weight());
+    }
+
+    @Test
+    void testPut_ReplacingValueAdjustsWeight() {
+        cache.put("a", new byte[60]);
+        cache.put("a", new byte[20]);
+
+        assertEquals(1, cache.size());
+        assertEquals(20, cache.weight());
+    }
+
+    @Test
+    void testPut_ReplacingWithHeavierValueEvictsOthersNotItself() {
+        cache.put("a", new byte[30]);
+        cache.put("b", new byte[30]);
+        cache.put("a", new byte[90]);
+
+        assertNotNull(cache.peek("a"));
+        assertNull(cache.peek("b"));
+        assertEquals(90, cache.weight());
+    }
+
+    @Test
+    void testRemoveAndRemoveIf_ReleaseWeight() {
+        cache.put("a", new byte[10]);
+        cache.put("b", new byte[20]);
+        cache.put("c", new byte[30]);
+
+        assertEquals(10, cache.remove("a").length);
+        assertNull(cache.remove("missing"));
+        assertEquals(1, cache.removeIf((key, value) -> value.length > 25));
+        assertEquals(20, cache.weight());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    void testGetAndPeek_CountHitsAndMisses() {
+        cache.put("a", new byte[10]);
+
+        cache.get("a");
+        cache.get("a");
+        cache.get("missing");
+        cache.peek("a");
+        cache.peek("missing");
+
+        assertEquals(2, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+}